@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 Purushottam Pawar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prush.typedtextview;
+
+import android.content.Context;
+import android.media.MediaPlayer;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RawRes;
+import android.support.annotation.VisibleForTesting;
+
+/**
+ * Creates and releases keystrokes audio players, keeping count of the ones alive so that leaks
+ * of native players show up in tests.
+ */
+final class KeyStrokesAudio
+{
+    @VisibleForTesting
+    static int sActivePlayers;
+
+    private KeyStrokesAudio()
+    {
+    }
+
+    /**
+     * @return MediaPlayer prepared with the audio resource, null if it could not be created.
+     */
+    @Nullable
+    static MediaPlayer createPlayer( @NonNull final Context context, @RawRes final int keyStrokeAudioRes )
+    {
+        MediaPlayer mediaPlayer = MediaPlayer.create( context, keyStrokeAudioRes );
+        if( mediaPlayer != null )
+        {
+            sActivePlayers++;
+        }
+        return mediaPlayer;
+    }
+
+    /**
+     * Release a player created by {@link #createPlayer(Context, int)}.
+     */
+    static void releasePlayer( @NonNull final MediaPlayer mediaPlayer )
+    {
+        mediaPlayer.release();
+        sActivePlayers--;
+    }
+}
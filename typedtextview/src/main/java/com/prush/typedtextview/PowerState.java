@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Purushottam Pawar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prush.typedtextview;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+import android.provider.Settings;
+import android.support.annotation.NonNull;
+
+/**
+ * Reads device state that should make typing animation cheaper.
+ */
+final class PowerState
+{
+    private PowerState()
+    {
+    }
+
+    /**
+     * @return boolean true if battery saver is on or animations are disabled by the user.
+     */
+    static boolean isConstrained( @NonNull final Context context )
+    {
+        return isPowerSaveMode( context ) || isAnimationDisabled( context );
+    }
+
+    private static boolean isPowerSaveMode( Context context )
+    {
+        if( Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP )
+        {
+            return false;
+        }
+        PowerManager powerManager = ( PowerManager ) context.getSystemService( Context.POWER_SERVICE );
+        return powerManager != null && powerManager.isPowerSaveMode();
+    }
+
+    @SuppressWarnings( "deprecation" )
+    private static boolean isAnimationDisabled( Context context )
+    {
+        ContentResolver contentResolver = context.getContentResolver();
+        float animatorDurationScale;
+        if( Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 )
+        {
+            animatorDurationScale = Settings.Global.getFloat( contentResolver, Settings.Global.ANIMATOR_DURATION_SCALE, 1f );
+        }
+        else
+        {
+            animatorDurationScale = Settings.System.getFloat( contentResolver, Settings.System.ANIMATOR_DURATION_SCALE, 1f );
+        }
+        return animatorDurationScale == 0f;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019 Purushottam Pawar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prush.typedtextview;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import android.util.LruCache;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+import java.util.Random;
+
+/**
+ * Immutable result of preparing a text for typing: sentence splitting and the delay to wait
+ * after every typed character.
+ * <p>
+ * Prepared texts are kept in a size bounded LRU cache keyed by the source text and every
+ * configuration value the preparation depends on, so the same text typed again with the same
+ * configuration skips all preparation work.
+ */
+final class PreparedText
+{
+    private static final int CACHE_SIZE = 32;
+    private static final Random RANDOM = new Random();
+
+    private static final LruCache< Key, PreparedText > CACHE = new LruCache<>( CACHE_SIZE );
+
+    //application the cache is trimmed for, registered when the cache is first used with a context.
+    private static Context sTrimMemoryContext;
+
+    private static final ComponentCallbacks2 TRIM_MEMORY_CALLBACKS = new ComponentCallbacks2()
+    {
+        @Override
+        public void onTrimMemory( int level )
+        {
+            //prepared texts are cheap to rebuild, drop them once memory is actually running low.
+            if( level >= TRIM_MEMORY_RUNNING_LOW && level != TRIM_MEMORY_UI_HIDDEN )
+            {
+                clearCache();
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged( Configuration newConfig )
+        {
+        }
+
+        @Override
+        public void onLowMemory()
+        {
+            clearCache();
+        }
+    };
+
+    private final String mText;
+    private final long[] mDelays;
+    private final boolean[] mSentencePauses;
+
+    private PreparedText( String text, long[] delays, boolean[] sentencePauses )
+    {
+        mText = text;
+        mDelays = delays;
+        mSentencePauses = sentencePauses;
+    }
+
+    /**
+     * Returns prepared text from cache or prepares it if not found. Safe to call from any thread.
+     */
+    static PreparedText obtain( @NonNull final String text, final boolean bSplitSentences, final boolean bRandomizeTyping,
+                                final long typingSpeedMillis, final long randomTypingSeedMillis, final long sentencePauseMillis )
+    {
+        Preconditions.checkNotNull( text );
+
+        Key key = new Key( text, bSplitSentences, bRandomizeTyping, typingSpeedMillis, randomTypingSeedMillis, sentencePauseMillis );
+        PreparedText preparedText = CACHE.get( key );
+        if( preparedText == null )
+        {
+            preparedText = prepare( key );
+            CACHE.put( key, preparedText );
+        }
+        return preparedText;
+    }
+
+    /**
+     * Clear the cache whenever the application is asked to trim memory. Safe to call repeatedly and
+     * from any thread.
+     */
+    static synchronized void trimOnLowMemory( @NonNull final Context context )
+    {
+        Context applicationContext = context.getApplicationContext();
+        if( applicationContext == null || applicationContext == sTrimMemoryContext )
+        {
+            return;
+        }
+        if( sTrimMemoryContext != null )
+        {
+            sTrimMemoryContext.unregisterComponentCallbacks( TRIM_MEMORY_CALLBACKS );
+        }
+        sTrimMemoryContext = applicationContext;
+        sTrimMemoryContext.registerComponentCallbacks( TRIM_MEMORY_CALLBACKS );
+    }
+
+    /**
+     * Drop all prepared texts. Called on low memory once {@link #trimOnLowMemory(Context)} is set up.
+     */
+    static void clearCache()
+    {
+        CACHE.evictAll();
+    }
+
+    @VisibleForTesting
+    static int cacheHitCount()
+    {
+        return CACHE.hitCount();
+    }
+
+    private static PreparedText prepare( Key key )
+    {
+        String text = key.mbSplitSentences ? splitSentences( key.mText ) : key.mText;
+
+        long[] delays = new long[ text.length() ];
+        boolean[] sentencePauses = new boolean[ text.length() ];
+        for( int index = 0; index < text.length(); index++ )
+        {
+            //introduce sentence pause after comma(,) and full stop(.)
+            sentencePauses[ index ] = index != 0 && ( text.charAt( index - 1 ) == '.' || text.charAt( index - 1 ) == ',' );
+
+            if( sentencePauses[ index ] )
+            {
+                delays[ index ] = key.mSentencePauseMillis;
+            }
+            else if( key.mbRandomizeTyping )
+            {
+                long bound = key.mTypingSpeedMillis == 0 ? key.mRandomTypingSeedMillis : key.mTypingSpeedMillis;
+                delays[ index ] = key.mRandomTypingSeedMillis + ( bound > 0 ? RANDOM.nextInt( ( int ) bound ) : 0 );
+            }
+            else
+            {
+                delays[ index ] = key.mTypingSpeedMillis;
+            }
+        }
+        return new PreparedText( text, delays, sentencePauses );
+    }
+
+    private static String splitSentences( @NonNull final String text )
+    {
+        Preconditions.checkNotNull( text );
+        String modifiedText = text;
+        int index = modifiedText.indexOf( '.' );
+        int lastIndex = modifiedText.lastIndexOf( '.' );
+        if( index != lastIndex )
+        {
+            //multiple sentences found.
+            //introduce new lines for every full stop except the last one terminating string.
+            do
+            {
+                modifiedText = modifiedText.replaceFirst( "\\. ", ".\n" );
+
+                index = modifiedText.indexOf( '.', index + 1 );
+                lastIndex = modifiedText.lastIndexOf( '.' );
+
+            } while( index != -1 && index != lastIndex );
+        }
+
+        return modifiedText;
+    }
+
+    /**
+     * @return String text to be typed, with sentences split if configured.
+     */
+    String getText()
+    {
+        return mText;
+    }
+
+    int length()
+    {
+        return mText.length();
+    }
+
+    /**
+     * @param index int index of the character being typed.
+     * @return long duration in milliseconds to wait before typing the next character.
+     */
+    long getDelay( final int index )
+    {
+        return mDelays[ index ];
+    }
+
+    /**
+     * @param index int index of the character being typed.
+     * @return boolean true if typing pauses at this index because a sentence or clause just ended.
+     */
+    boolean isSentencePause( final int index )
+    {
+        return mSentencePauses[ index ];
+    }
+
+    private static final class Key
+    {
+        private final String mText;
+        private final boolean mbSplitSentences;
+        private final boolean mbRandomizeTyping;
+        private final long mTypingSpeedMillis;
+        private final long mRandomTypingSeedMillis;
+        private final long mSentencePauseMillis;
+
+        private Key( String text, boolean bSplitSentences, boolean bRandomizeTyping, long typingSpeedMillis,
+                     long randomTypingSeedMillis, long sentencePauseMillis )
+        {
+            mText = text;
+            mbSplitSentences = bSplitSentences;
+            mbRandomizeTyping = bRandomizeTyping;
+            mTypingSpeedMillis = typingSpeedMillis;
+            mRandomTypingSeedMillis = randomTypingSeedMillis;
+            mSentencePauseMillis = sentencePauseMillis;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if( this == o )
+            {
+                return true;
+            }
+            if( !( o instanceof Key ) )
+            {
+                return false;
+            }
+            Key key = ( Key ) o;
+            return mbSplitSentences == key.mbSplitSentences
+                    && mbRandomizeTyping == key.mbRandomizeTyping
+                    && mTypingSpeedMillis == key.mTypingSpeedMillis
+                    && mRandomTypingSeedMillis == key.mRandomTypingSeedMillis
+                    && mSentencePauseMillis == key.mSentencePauseMillis
+                    && mText.equals( key.mText );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hashCode( mText, mbSplitSentences, mbRandomizeTyping, mTypingSpeedMillis,
+                    mRandomTypingSeedMillis, mSentencePauseMillis );
+        }
+    }
+}
@@ -17,40 +17,58 @@ package com.prush.typedtextview;
 
 import android.arch.lifecycle.Lifecycle;
 import android.arch.lifecycle.LifecycleObserver;
+import android.arch.lifecycle.LifecycleOwner;
 import android.arch.lifecycle.OnLifecycleEvent;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.media.MediaPlayer;
+import android.os.Build;
 import android.os.Handler;
+import android.os.Looper;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.support.annotation.NonNull;
 import android.support.annotation.RawRes;
 import android.support.annotation.StringRes;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.view.ViewCompat;
 import android.support.v7.widget.AppCompatTextView;
 import android.util.AttributeSet;
+import android.view.accessibility.AccessibilityEvent;
 
 import com.google.common.base.Preconditions;
 
-import java.util.Random;
+import java.util.Collection;
 
 @SuppressWarnings( "unused" )
 public class TypedTextView extends AppCompatTextView implements LifecycleObserver
 {
     private CharSequence mText;
+    private PreparedText mPreparedText;
     private OnCharacterTypedListener mOnCharacterTypedListener;
     private int mIndex;
+    private boolean mbCursorVisible;
+    private char[] mFrame;
+    private int mFrameCursorIndex = -1;
 
     private static long DEFAULT_SENTENCE_PAUSE = 1500;
     private static long DEFAULT_CURSOR_BLINK_SPEED = 530;
     private static long DEFAULT_RANDOM_TYPING_SEED = 75;
     private static long DEFAULT_TYPING_SPEED = 175;
+    @VisibleForTesting
+    static long REDUCED_CURSOR_BLINK_TIMEOUT = 5000;
+    @VisibleForTesting( otherwise = VisibleForTesting.PACKAGE_PRIVATE )
+    static int REDUCED_TYPING_STEP = 4;
+    private static char CURSOR = '|';
+    private static char CURSOR_PLACEHOLDER = ' ';
+    private static char NO_CURSOR = 0;
     private static int DEFAULT_KEYSTROKES_AUDIO_RES = R.raw.keystrokes;
 
     private static boolean SHOW_CURSOR = true;
     private static boolean SPLIT_SENTENCES = true;
     private static boolean RANDOMIZE_TYPING = true;
     private static boolean PLAY_KEYSTROKES_AUDIO = true;
+    private static boolean ACCESSIBLE_TYPING = true;
 
     private long mSentencePauseMillis = DEFAULT_SENTENCE_PAUSE;
     private long mCursorBlinkSpeedMillis = DEFAULT_CURSOR_BLINK_SPEED;
@@ -61,11 +79,63 @@ public class TypedTextView extends AppCompatTextView implements LifecycleObserve
     private boolean mbRandomizeTyping = RANDOMIZE_TYPING;
     private boolean mbPlayKeyStrokesAudio = PLAY_KEYSTROKES_AUDIO;
     private int mKeyStrokeAudioRes = DEFAULT_KEYSTROKES_AUDIO_RES;
+    private boolean mbAccessibleTyping = ACCESSIBLE_TYPING;
+
+    //content description was set by accessible typing, not by the app.
+    private boolean mbOwnsContentDescription;
+    private PowerSaving mPowerSaving = PowerSaving.REDUCE;
+
+    //state of power saving decided when typing starts.
+    private boolean mbPowerConstrained;
+    private int mTypingStep = 1;
+    private int mCursorBlinksLeft = -1;
+
+    //text was shown immediately, announcement and last character callback wait for window.
+    private boolean mbInstantTypingPending;
+
+    //frames are driven by TypingCoordinator instead of own typing loop.
+    private boolean mbCoordinated;
+    private boolean mbCoordinatedStarted;
+
+    //incremented for every text prepared, so that frames meant for a previous text are recognized.
+    private int mTypingGeneration;
 
     private MediaPlayer mMediaPlayer;
-    private Handler mHandler = new Handler();
+    private int mMediaPlayerAudioRes;
+    private Runnable mTypeWriter;
+    private Runnable mCursorProxyRunnable;
+
+    /*
+     * All instances post to one main thread Handler instead of allocating their own.
+     * Typing is only scheduled while attached to window and callbacks are removed per instance
+     * on detach/destroy, so a pending message never outlives the view that posted it.
+     */
+    @VisibleForTesting
+    static Handler sHandler;
 
 
+    /**
+     * How typing adapts when battery saver is on or animations are disabled on the device.
+     */
+    public enum PowerSaving
+    {
+        /**
+         * Always type character by character with blinking cursor and keystrokes audio.
+         */
+        OFF,
+
+        /**
+         * Reveal several characters per step, skip keystrokes audio and stop blinking cursor
+         * after a timeout.
+         */
+        REDUCE,
+
+        /**
+         * Display the entire text immediately without cursor or keystrokes audio.
+         */
+        INSTANT
+    }
+
     /**
      * Callback to be invoked when typing is started.
      */
@@ -104,6 +174,8 @@ public class TypedTextView extends AppCompatTextView implements LifecycleObserve
         mbRandomizeTyping = array.getBoolean( R.styleable.TypedTextView_randomize_typing_speed, RANDOMIZE_TYPING );
         mbPlayKeyStrokesAudio = array.getBoolean( R.styleable.TypedTextView_play_keystrokes_audio, PLAY_KEYSTROKES_AUDIO );
         mKeyStrokeAudioRes = array.getResourceId( R.styleable.TypedTextView_play_keystrokes_audio_res, -1 );
+        mbAccessibleTyping = array.getBoolean( R.styleable.TypedTextView_accessible_typing, ACCESSIBLE_TYPING );
+        mPowerSaving = PowerSaving.values()[ array.getInt( R.styleable.TypedTextView_power_saving, PowerSaving.REDUCE.ordinal() ) ];
 
         if( mKeyStrokeAudioRes == -1 )
         {
@@ -123,125 +195,261 @@ public class TypedTextView extends AppCompatTextView implements LifecycleObserve
         array.recycle();
     }
 
-    private Runnable mTypeWriter = new Runnable()
+    static Handler getHandler()
+    {
+        if( sHandler == null )
+        {
+            sHandler = new Handler( Looper.getMainLooper() );
+        }
+        return sHandler;
+    }
+
+    private Runnable getTypeWriter()
+    {
+        if( mTypeWriter == null )
+        {
+            mTypeWriter = new TypeWriterRunnable();
+        }
+        return mTypeWriter;
+    }
+
+    private Runnable getCursorProxyRunnable()
+    {
+        if( mCursorProxyRunnable == null )
+        {
+            mCursorProxyRunnable = new CursorProxyRunnable();
+        }
+        return mCursorProxyRunnable;
+    }
+
+    private class TypeWriterRunnable implements Runnable
     {
         @Override
         public void run()
         {
             if( mIndex < mText.length() )
             {
-                //extract characters by index
-                CharSequence charSequence = mText.subSequence( 0, mIndex );
-
-                //append cursor
-                if( mbShowCursor )
+                //typing started. let screen readers speak the whole text once.
+                if( mIndex == 0 )
                 {
-                    charSequence = charSequence + "|";
+                    announceTypedText();
                 }
 
-                randomizeTyping();
-
                 //play keystrokes
                 playKeystrokes();
 
-                //set character by character
-                setText( charSequence );
+                //set character by character, with cursor appended
+                setFrame( mIndex, mbShowCursor ? CURSOR : NO_CURSOR );
 
-                if( mOnCharacterTypedListener != null )
+                //advance by one character, or by several while saving power to wake up less often.
+                int stepEnd = Math.min( mIndex + mTypingStep, mText.length() );
+                long delayMillis = 0;
+                for( ; mIndex < stepEnd; mIndex++ )
                 {
-                    mOnCharacterTypedListener.onCharacterTyped( mText.charAt( mIndex ), mIndex );
-                }
+                    if( mOnCharacterTypedListener != null )
+                    {
+                        mOnCharacterTypedListener.onCharacterTyped( mText.charAt( mIndex ), mIndex );
+                    }
 
-                mHandler.postDelayed( mTypeWriter, mTypingSpeedMillis );
+                    delayMillis += mPreparedText.getDelay( mIndex );
 
-                addSentencePause();
+                    addSentencePause();
+                }
 
-                mIndex++;
+                getHandler().postDelayed( this, delayMillis );
             }
             else
             {
                 //end of text.
-                mHandler.removeCallbacks( mTypeWriter );
+                getHandler().removeCallbacks( this );
 
                 //stop playing keystrokes
                 stopKeystrokes();
 
+                //display the entire text, last frame above is one character short of it.
+                mbCursorVisible = mbShowCursor;
+                setFrame( mText.length(), mbShowCursor ? CURSOR : NO_CURSOR );
+
                 //typing completed. show blinking cursor.
                 if( mbShowCursor )
                 {
-                    mHandler.postDelayed( mCursorProxyRunnable, mCursorBlinkSpeedMillis );
+                    startCursorBlink();
                 }
             }
         }
-    };
+    }
 
-    private void stopKeystrokes()
+    private void startCursorBlink()
     {
-        if( mbPlayKeyStrokesAudio )
+        //blink forever, or only until timeout while saving power. without a blink interval the timeout
+        //would never be reached, so do not blink at all then.
+        if( mbPowerConstrained )
+        {
+            mCursorBlinksLeft = mCursorBlinkSpeedMillis > 0
+                    ? ( int ) ( REDUCED_CURSOR_BLINK_TIMEOUT / mCursorBlinkSpeedMillis ) : 0;
+        }
+        else
         {
-            mMediaPlayer.stop();
+            mCursorBlinksLeft = -1;
         }
+        getHandler().postDelayed( getCursorProxyRunnable(), mCursorBlinkSpeedMillis );
     }
 
-    private void playKeystrokes()
+    private void prepareFrame()
     {
-        if( mbPlayKeyStrokesAudio )
+        //one extra slot for cursor after the last character.
+        if( mFrame == null || mFrame.length < mText.length() + 1 )
         {
-            mMediaPlayer.start();
+            mFrame = new char[ mText.length() + 1 ];
         }
+        mPreparedText.getText().getChars( 0, mText.length(), mFrame, 0 );
+        mFrameCursorIndex = -1;
     }
 
-    private void prepareMediaPlayer()
+    /*
+     * Every frame is a prefix of the text, optionally followed by cursor, so all frames are slices
+     * of one char array. TextView wraps such a slice without copying it into a new String, hence
+     * typing and blinking do not allocate per character.
+     */
+    private void setFrame( final int length, final char cursor )
     {
-        if( mbPlayKeyStrokesAudio )
+        //restore the character overwritten by cursor of previous frame.
+        if( mFrameCursorIndex != -1 && mFrameCursorIndex < mText.length() )
+        {
+            mFrame[ mFrameCursorIndex ] = mText.charAt( mFrameCursorIndex );
+        }
+        mFrameCursorIndex = -1;
+
+        int frameLength = length;
+        if( cursor != NO_CURSOR )
         {
-            mMediaPlayer = MediaPlayer.create( getContext(), mKeyStrokeAudioRes );
+            mFrame[ length ] = cursor;
+            mFrameCursorIndex = length;
+            frameLength++;
         }
+        setText( mFrame, 0, frameLength );
     }
 
-    private void removeCallbacks()
+    private void announceTypedText()
     {
-        mHandler.removeCallbacks( mTypeWriter );
-        if( mbShowCursor )
+        if( mbAccessibleTyping && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN )
         {
-            mHandler.removeCallbacks( mCursorProxyRunnable );
+            announceForAccessibility( mText );
         }
     }
 
-    private void pauseKeyStrokes()
+    /*
+     * Every frame of typing and every cursor blink is a setText(), which makes TextView report a
+     * text change per character. In accessible typing mode the complete text is exposed once
+     * through content description and announced when typing starts, so these events are dropped.
+     */
+    @Override
+    public void sendAccessibilityEventUnchecked( AccessibilityEvent event )
     {
-        if( mbPlayKeyStrokesAudio )
+        if( mbAccessibleTyping && mText != null )
+        {
+            int eventType = event.getEventType();
+            if( eventType == AccessibilityEvent.TYPE_VIEW_TEXT_CHANGED
+                    || eventType == AccessibilityEvent.TYPE_VIEW_TEXT_SELECTION_CHANGED )
+            {
+                return;
+            }
+
+            //window content changes are merged, keep the ones other than text, e.g. content description.
+            if( eventType == AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED
+                    && Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT )
+            {
+                int contentChangeTypes = event.getContentChangeTypes() & ~AccessibilityEvent.CONTENT_CHANGE_TYPE_TEXT;
+                if( contentChangeTypes != event.getContentChangeTypes() )
+                {
+                    if( contentChangeTypes == 0 )
+                    {
+                        return;
+                    }
+                    event.setContentChangeTypes( contentChangeTypes );
+                }
+            }
+        }
+        super.sendAccessibilityEventUnchecked( event );
+    }
+
+    private void stopKeystrokes()
+    {
+        //keep the prepared player around for the next text, just rewind it.
+        if( mMediaPlayer != null )
         {
             mMediaPlayer.pause();
+            mMediaPlayer.seekTo( 0 );
         }
     }
 
-    private void randomizeTyping()
+    private void playKeystrokes()
     {
-        if( mbRandomizeTyping )
+        if( mbPlayKeyStrokesAudio && !mbPowerConstrained )
         {
-            if( mTypingSpeedMillis == 0 )
+            MediaPlayer mediaPlayer = getMediaPlayer();
+            if( mediaPlayer != null && !mediaPlayer.isPlaying() )
             {
-                mTypingSpeedMillis = mRandomTypingSeedMillis;
+                mediaPlayer.start();
             }
-            mTypingSpeedMillis = mRandomTypingSeedMillis + new Random().nextInt( ( int ) ( mTypingSpeedMillis ) );
+        }
+    }
+
+    private MediaPlayer getMediaPlayer()
+    {
+        //created on first keystroke and reused across texts until the audio resource changes.
+        if( mMediaPlayer != null && mMediaPlayerAudioRes != mKeyStrokeAudioRes )
+        {
+            releaseMediaPlayer();
+        }
+
+        if( mMediaPlayer == null )
+        {
+            mMediaPlayer = KeyStrokesAudio.createPlayer( getContext(), mKeyStrokeAudioRes );
+            mMediaPlayerAudioRes = mKeyStrokeAudioRes;
+        }
+        return mMediaPlayer;
+    }
+
+    private void releaseMediaPlayer()
+    {
+        if( mMediaPlayer != null )
+        {
+            KeyStrokesAudio.releasePlayer( mMediaPlayer );
+            mMediaPlayer = null;
+        }
+    }
+
+    private void removeCallbacks()
+    {
+        if( mTypeWriter != null )
+        {
+            getHandler().removeCallbacks( mTypeWriter );
+        }
+        if( mCursorProxyRunnable != null )
+        {
+            getHandler().removeCallbacks( mCursorProxyRunnable );
+        }
+    }
+
+    private void pauseKeyStrokes()
+    {
+        if( mMediaPlayer != null && mMediaPlayer.isPlaying() )
+        {
+            mMediaPlayer.pause();
         }
     }
 
     private void addSentencePause()
     {
-        //introduce sentence pause
-        if( mIndex != 0 && ( mText.charAt( mIndex - 1 ) == '.' || mText.charAt( mIndex - 1 ) == ',' ) )
+        //sentence pause delay is already part of prepared text, pause keystrokes as well
+        if( mPreparedText.isSentencePause( mIndex ) )
         {
-            //pause keystrokes as well
             pauseKeyStrokes();
-
-            mHandler.removeCallbacks( mTypeWriter );
-            mHandler.postDelayed( mTypeWriter, mSentencePauseMillis );
         }
     }
 
-    private Runnable mCursorProxyRunnable = new Runnable()
+    private class CursorProxyRunnable implements Runnable
     {
         @Override
         public void run()
@@ -253,35 +461,33 @@ public class TypedTextView extends AppCompatTextView implements LifecycleObserve
 
             To overcome this, an empty space is added which replaces pipe | in order to keep the text in same position.
 
-            if cursor is not shown and empty space is not shown, append cursor.
-            else Replace empty space with cursor/pipe.
+            if cursor is not shown, append cursor.
             else Replace cursor/pipe with empty space.
 
-            */
-            CharSequence charSequence = mText;
+            mText itself is never modified so that typing state survives stop/start and detach/attach.
 
-            if( charSequence.charAt( charSequence.length() - 1 ) != '|' && charSequence.charAt( charSequence.length() - 1 ) != ' ' )
-            {
-                charSequence = charSequence + "|";
-            }
-            else if( charSequence.charAt( charSequence.length() - 1 ) == ' ' )
+            */
+            if( mCursorBlinksLeft == 0 )
             {
-                charSequence = charSequence.subSequence( 0, charSequence.length() - 1 );
-                charSequence = charSequence + "|";
+                //blink timeout reached, leave the text without cursor.
+                mbCursorVisible = false;
+                setFrame( mText.length(), NO_CURSOR );
+                return;
             }
-            else
+            if( mCursorBlinksLeft > 0 )
             {
-                charSequence = charSequence.subSequence( 0, charSequence.length() - 1 );
-                charSequence = charSequence + " ";
+                mCursorBlinksLeft--;
             }
-            mText = charSequence;
-            setText( charSequence );
-            mHandler.postDelayed( mCursorProxyRunnable, mCursorBlinkSpeedMillis );
+
+            mbCursorVisible = !mbCursorVisible;
+            setFrame( mText.length(), mbCursorVisible ? CURSOR : CURSOR_PLACEHOLDER );
+            getHandler().postDelayed( this, mCursorBlinkSpeedMillis );
         }
-    };
+    }
 
     /**
-     * Set text to be typed with the TypeWriter effect.
+     * Set text to be typed with the TypeWriter effect. Typing starts once the view is attached to
+     * window.
      *
      * @param text {@link String} text to be typed character by character.
      */
@@ -289,18 +495,147 @@ public class TypedTextView extends AppCompatTextView implements LifecycleObserve
     {
         Preconditions.checkNotNull( text );
 
-        //split sentences on new line
-        mText = mbSplitSentences ? splitSentences( text ) : text;
+        prepareTyping( text );
+        mbCoordinated = false;
+
+        mbPowerConstrained = mPowerSaving != PowerSaving.OFF && PowerState.isConstrained( getContext() );
+        mTypingStep = mbPowerConstrained ? REDUCED_TYPING_STEP : 1;
+
+        if( mbPowerConstrained && mPowerSaving == PowerSaving.INSTANT )
+        {
+            showTypedTextImmediately();
+            return;
+        }
 
-        mIndex = 0;
         setText( "" );
 
+        //start typing, or wait for onAttachedToWindow() if the view is not on screen yet.
+        if( ViewCompat.isAttachedToWindow( this ) )
+        {
+            getHandler().postDelayed( getTypeWriter(), mTypingSpeedMillis );
+        }
+    }
+
+    /**
+     * Prepare text for {@link TypingCoordinator}, which then drives the frames itself instead of
+     * this view's own typing loop.
+     */
+    PreparedText prepareCoordinatedTyping( @NonNull final String text )
+    {
+        Preconditions.checkNotNull( text );
+
+        PreparedText preparedText = prepareTyping( text );
+        mbCoordinated = true;
+        mbCoordinatedStarted = false;
+        showCoordinatedFrame( mTypingGeneration, -1, false );
+        return preparedText;
+    }
+
+    /**
+     * @return int identifies the text last prepared by this view. Prepared texts are shared through
+     * cache, so the same text prepared again is told apart by this instead.
+     */
+    int getTypingGeneration()
+    {
+        return mTypingGeneration;
+    }
+
+    private PreparedText prepareTyping( @NonNull final String text )
+    {
+        //split sentences on new line and compute typing delays, or reuse them if already prepared.
+        mPreparedText = obtainPreparedText( text );
+        mText = mPreparedText.getText();
+        mTypingGeneration++;
+
+        //expose complete text to screen readers instead of partially typed one, unless the app
+        //described the view itself.
+        if( mbAccessibleTyping && ( mbOwnsContentDescription || getContentDescription() == null ) )
+        {
+            setTypedContentDescription( mText );
+        }
+
+        mIndex = 0;
+        mbCursorVisible = false;
+        mCursorBlinksLeft = -1;
+        mbInstantTypingPending = false;
+        prepareFrame();
+
         removeCallbacks();
 
-        prepareMediaPlayer();
+        return mPreparedText;
+    }
 
-        //start typing
-        mHandler.postDelayed( mTypeWriter, mTypingSpeedMillis );
+    /**
+     * Display a frame on behalf of {@link TypingCoordinator}. Ignored once the view has been given
+     * another text, e.g. by setTypedText(), as the frame may not fit in it.
+     *
+     * @param typingGeneration int {@link #getTypingGeneration()} when the coordinator prepared its text.
+     * @param length           int number of characters to display, -1 if typing has not started yet.
+     * @param bDispatch        boolean notify accessibility and {@link OnCharacterTypedListener} of the
+     *                         characters revealed since previous frame. False while seeking.
+     */
+    void showCoordinatedFrame( final int typingGeneration, final int length, final boolean bDispatch )
+    {
+        if( !mbCoordinated || typingGeneration != mTypingGeneration )
+        {
+            return;
+        }
+
+        int previousIndex = mIndex;
+        boolean bWasStarted = mbCoordinatedStarted;
+        mIndex = Math.max( length, 0 );
+        mbCoordinatedStarted = length >= 0;
+
+        if( length < 0 || length == mText.length() )
+        {
+            //not started yet or completed, cursor is shown only while typing.
+            setFrame( mIndex, NO_CURSOR );
+        }
+        else
+        {
+            setFrame( mIndex, mbShowCursor ? CURSOR : NO_CURSOR );
+        }
+
+        if( !bDispatch || length < 0 )
+        {
+            return;
+        }
+
+        //typing started, possibly several characters at once. let screen readers speak it once.
+        if( !bWasStarted )
+        {
+            announceTypedText();
+        }
+        if( mOnCharacterTypedListener != null )
+        {
+            for( int index = previousIndex; index < mIndex; index++ )
+            {
+                mOnCharacterTypedListener.onCharacterTyped( mText.charAt( index ), index );
+            }
+        }
+    }
+
+    private void showTypedTextImmediately()
+    {
+        mIndex = mText.length();
+        mCursorBlinksLeft = 0;
+        setFrame( mText.length(), NO_CURSOR );
+
+        //like typing, report to accessibility and listener only once the view is on screen.
+        mbInstantTypingPending = true;
+        resumeTyping();
+    }
+
+    private void dispatchInstantTyping()
+    {
+        mbInstantTypingPending = false;
+        announceTypedText();
+
+        //report last character so that listeners waiting for the end of text are still notified.
+        if( mOnCharacterTypedListener != null && mText.length() > 0 )
+        {
+            mOnCharacterTypedListener.onCharacterTyped( mText.charAt( mText.length() - 1 ), mText.length() - 1 );
+        }
     }
 
     private static void startTyping( @NonNull final String text )
@@ -342,27 +677,26 @@ public class TypedTextView extends AppCompatTextView implements LifecycleObserve
         setTypedText( text );
     }
 
-    private String splitSentences( @NonNull final String text )
+    private PreparedText obtainPreparedText( @NonNull final String text )
     {
-        Preconditions.checkNotNull( text );
-        String modifiedText = text;
-        int index = modifiedText.indexOf( '.' );
-        int lastIndex = modifiedText.lastIndexOf( '.' );
-        if( index != lastIndex )
-        {
-            //multiple sentences found.
-            //introduce new lines for every full stop except the last one terminating string.
-            do
-            {
-                modifiedText = modifiedText.replaceFirst( "\\. ", ".\n" );
-
-                index = modifiedText.indexOf( '.', index + 1 );
-                lastIndex = modifiedText.lastIndexOf( '.' );
+        PreparedText.trimOnLowMemory( getContext() );
+        return PreparedText.obtain( text, mbSplitSentences, mbRandomizeTyping, mTypingSpeedMillis,
+                mRandomTypingSeedMillis, mSentencePauseMillis );
+    }
 
-            } while( index != -1 && index != lastIndex );
+    /**
+     * Prepare texts to be typed later with current configuration of this view, so that
+     * setTypedText() for any of them skips preparation. Safe to call from a background thread.
+     *
+     * @param texts {@link Collection} of texts likely to be typed by this view.
+     */
+    public void prewarm( @NonNull final Collection< ? extends CharSequence > texts )
+    {
+        Preconditions.checkNotNull( texts );
+        for( CharSequence text : texts )
+        {
+            obtainPreparedText( text.toString() );
         }
-
-        return modifiedText;
     }
 
     /**
@@ -469,6 +803,62 @@ public class TypedTextView extends AppCompatTextView implements LifecycleObserve
         mKeyStrokeAudioRes = keyStrokeAudioRes;
     }
 
+    /**
+     * Expose the complete text to accessibility services once, instead of every typed character
+     * and cursor blink. Enabled by default.
+     *
+     * @param bAccessibleTyping boolean set content description to the text being typed, announce it
+     *                          when typing starts and suppress intermediate text changed events.
+     */
+    public void accessibleTyping( final boolean bAccessibleTyping )
+    {
+        if( mbAccessibleTyping == bAccessibleTyping )
+        {
+            return;
+        }
+        mbAccessibleTyping = bAccessibleTyping;
+
+        //only the content description set by accessible typing is updated, never the app's own.
+        if( bAccessibleTyping && mText != null && getContentDescription() == null )
+        {
+            setTypedContentDescription( mText );
+        }
+        else if( !bAccessibleTyping && mbOwnsContentDescription )
+        {
+            setTypedContentDescription( null );
+        }
+    }
+
+    @Override
+    public void setContentDescription( CharSequence contentDescription )
+    {
+        //set by the app, accessible typing leaves it alone from now on.
+        mbOwnsContentDescription = false;
+        super.setContentDescription( contentDescription );
+    }
+
+    private void setTypedContentDescription( CharSequence contentDescription )
+    {
+        super.setContentDescription( contentDescription );
+        mbOwnsContentDescription = contentDescription != null;
+    }
+
+    /**
+     * Adapt typing when battery saver is on or animator duration scale is set to 0.
+     * Device state is checked every time typing starts. Defaults to {@link PowerSaving#REDUCE}.
+     *
+     * @param powerSaving {@link PowerSaving} behaviour while the device saves power.
+     */
+    public void setPowerSaving( @NonNull final PowerSaving powerSaving )
+    {
+        mPowerSaving = Preconditions.checkNotNull( powerSaving );
+    }
+
+    PowerSaving getPowerSaving()
+    {
+        return mPowerSaving;
+    }
+
     public static class Builder
     {
         private TypedTextView mTypedTextView;
@@ -587,6 +977,29 @@ public class TypedTextView extends AppCompatTextView implements LifecycleObserve
             return this;
         }
 
+        /**
+         * Expose the complete text to accessibility services once, instead of every typed character
+         * and cursor blink.
+         *
+         * @param bAccessibleTyping boolean enable accessible typing mode.
+         */
+        public Builder accessibleTyping( final boolean bAccessibleTyping )
+        {
+            mTypedTextView.accessibleTyping( bAccessibleTyping );
+            return this;
+        }
+
+        /**
+         * Adapt typing when battery saver is on or animator duration scale is set to 0.
+         *
+         * @param powerSaving {@link PowerSaving} behaviour while the device saves power.
+         */
+        public Builder setPowerSaving( @NonNull final PowerSaving powerSaving )
+        {
+            mTypedTextView.setPowerSaving( powerSaving );
+            return this;
+        }
+
         public TypedTextView build()
         {
             return mTypedTextView;
@@ -608,13 +1021,7 @@ public class TypedTextView extends AppCompatTextView implements LifecycleObserve
     @OnLifecycleEvent( Lifecycle.Event.ON_START )
     void onViewStarted()
     {
-        //resume typing if view was stopped before entire text was displayed.
-        if( mText != null && mIndex != 0 && mIndex != mText.length() )
-        {
-            //resume playing keystrokes
-            playKeystrokes();
-            mHandler.postDelayed( mTypeWriter, mTypingSpeedMillis );
-        }
+        resumeTyping();
     }
 
     @OnLifecycleEvent( Lifecycle.Event.ON_STOP )
@@ -627,6 +1034,77 @@ public class TypedTextView extends AppCompatTextView implements LifecycleObserve
         pauseKeyStrokes();
     }
 
+    @OnLifecycleEvent( Lifecycle.Event.ON_DESTROY )
+    void onViewDestroyed( LifecycleOwner owner )
+    {
+        release();
+
+        //lifecycle owner must not keep a reference to this view once destroyed.
+        owner.getLifecycle().removeObserver( this );
+    }
+
+    /**
+     * Stop typing and release the keystrokes audio player held by this view.
+     * <p>
+     * Called automatically when the view is detached from window or when the attached
+     * lifecycle owner is destroyed. Typing can be started again with setTypedText().
+     */
+    public void release()
+    {
+        removeCallbacks();
+        releaseMediaPlayer();
+    }
+
+    private void resumeTyping()
+    {
+        //a detached view resumes from onAttachedToWindow() instead of lifecycle events.
+        if( mbCoordinated || !ViewCompat.isAttachedToWindow( this ) )
+        {
+            return;
+        }
+
+        if( mbInstantTypingPending )
+        {
+            dispatchInstantTyping();
+            return;
+        }
+
+        //resume typing if view was stopped before entire text was displayed.
+        if( mText != null && mIndex < mText.length() )
+        {
+            //avoid double posting when both window and lifecycle resume the view.
+            removeCallbacks();
+
+            //resume playing keystrokes, typing that has not started yet starts audio with its first frame.
+            if( mIndex > 0 )
+            {
+                playKeystrokes();
+            }
+            getHandler().postDelayed( getTypeWriter(), mTypingSpeedMillis );
+        }
+        else if( mText != null && mbShowCursor && mCursorBlinksLeft != 0 )
+        {
+            //typing completed before view was stopped. resume blinking cursor.
+            removeCallbacks();
+            getHandler().postDelayed( getCursorProxyRunnable(), mCursorBlinkSpeedMillis );
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow()
+    {
+        super.onAttachedToWindow();
+        resumeTyping();
+    }
+
+    @Override
+    protected void onDetachedFromWindow()
+    {
+        //nothing should be posted on behalf of a view that is no longer on screen.
+        release();
+        super.onDetachedFromWindow();
+    }
+
     @Override
     public Parcelable onSaveInstanceState()
     {
@@ -0,0 +1,603 @@
+/*
+ * Copyright 2019 Purushottam Pawar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prush.typedtextview;
+
+import android.arch.lifecycle.Lifecycle;
+import android.arch.lifecycle.LifecycleObserver;
+import android.arch.lifecycle.LifecycleOwner;
+import android.arch.lifecycle.OnLifecycleEvent;
+import android.content.Context;
+import android.media.MediaPlayer;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.RawRes;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Types several {@link TypedTextView}s one after another or in parallel, e.g. title, then subtitle,
+ * then body.
+ * <p>
+ * All views are driven from one schedule with one keystrokes audio player, instead of every view
+ * running its own typing loop. Timings of every character are known upfront, so the whole sequence
+ * is deterministic and can be seeked.
+ * <p>
+ * Power saving of every view is applied to its step when the coordinator is built, and keystrokes
+ * audio is skipped if any of the steps saves power.
+ * <p>
+ * Typing waits until every view is attached to window and pauses while any of them is detached.
+ * Add {@link #getLifecycleObserver()} to the lifecycle owner so that typing also pauses while it is
+ * stopped and the coordinator is released when it is destroyed, or call {@link #release()}
+ * explicitly once done. Building another coordinator for a view takes it over from the previous one.
+ */
+@SuppressWarnings( "unused" )
+public class TypingCoordinator implements LifecycleObserver
+{
+    private final Context mContext;
+    private final Step[] mSteps;
+    private final long mDurationMillis;
+    private final boolean mbPlayKeyStrokesAudio;
+    private final int mKeyStrokeAudioRes;
+
+    private OnTypingProgressListener mOnTypingProgressListener;
+    private MediaPlayer mMediaPlayer;
+
+    private long mPositionMillis;
+    private long mStartUptimeMillis;
+    private boolean mbPlaying;
+    private boolean mbResumeOnStart;
+    private boolean mbResumeOnAttach;
+    private boolean mbReleased;
+
+    private final Runnable mScheduler = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            onTick();
+        }
+    };
+
+    private final View.OnAttachStateChangeListener mOnAttachStateChangeListener = new View.OnAttachStateChangeListener()
+    {
+        @Override
+        public void onViewAttachedToWindow( View view )
+        {
+            if( mbResumeOnAttach )
+            {
+                start();
+            }
+        }
+
+        @Override
+        public void onViewDetachedFromWindow( View view )
+        {
+            //nothing should be posted on behalf of views that are no longer on screen, nor should
+            //audio be held for them. the player is created again on next keystroke.
+            if( mbPlaying )
+            {
+                pause();
+                mbResumeOnAttach = true;
+            }
+            releaseKeyStrokes();
+        }
+    };
+
+    /**
+     * Callback to be invoked while the coordinated views are being typed.
+     */
+    public interface OnTypingProgressListener
+    {
+        /**
+         * Provides progress of the whole sequence.
+         *
+         * @param progress float between 0 and 1.
+         */
+        void onTypingProgress( final float progress );
+
+        /**
+         * Invoked once every view has been typed entirely.
+         */
+        void onTypingCompleted();
+    }
+
+    private TypingCoordinator( Builder builder )
+    {
+        mContext = builder.mContext;
+        mSteps = builder.mSteps.toArray( new Step[ 0 ] );
+        mDurationMillis = builder.mSequenceEndMillis;
+        mbPlayKeyStrokesAudio = builder.mbPlayKeyStrokesAudio && !builder.mbSavingPower;
+        mKeyStrokeAudioRes = builder.mKeyStrokeAudioRes;
+
+        for( Step step : mSteps )
+        {
+            step.mTypedTextView.addOnAttachStateChangeListener( mOnAttachStateChangeListener );
+        }
+    }
+
+    /**
+     * Start or resume typing from current position, as soon as every view is attached to window.
+     */
+    public void start()
+    {
+        Preconditions.checkState( !mbReleased, "coordinator has been released" );
+        if( mbPlaying )
+        {
+            return;
+        }
+        if( !isAttachedToWindow() )
+        {
+            mbResumeOnAttach = true;
+            return;
+        }
+        mbResumeOnAttach = false;
+        mbPlaying = true;
+        mStartUptimeMillis = SystemClock.uptimeMillis() - mPositionMillis;
+        onTick();
+    }
+
+    /**
+     * Pause typing at current position.
+     */
+    public void pause()
+    {
+        mbResumeOnAttach = false;
+        if( !mbPlaying )
+        {
+            return;
+        }
+        mPositionMillis = getPositionMillis();
+        mbPlaying = false;
+        TypedTextView.getHandler().removeCallbacks( mScheduler );
+        pauseKeyStrokes();
+    }
+
+    /**
+     * Display every view as it would be after typing for the given duration.
+     * Typing continues from there if it was started.
+     *
+     * @param positionMillis long position in milliseconds from the start of the sequence.
+     */
+    public void seekTo( final long positionMillis )
+    {
+        mPositionMillis = Math.max( 0, Math.min( positionMillis, mDurationMillis ) );
+
+        for( Step step : mSteps )
+        {
+            step.render( mPositionMillis, false );
+        }
+
+        if( mbPlaying )
+        {
+            TypedTextView.getHandler().removeCallbacks( mScheduler );
+            mStartUptimeMillis = SystemClock.uptimeMillis() - mPositionMillis;
+            onTick();
+        }
+        else if( mOnTypingProgressListener != null )
+        {
+            mOnTypingProgressListener.onTypingProgress( getProgress() );
+        }
+    }
+
+    /**
+     * Stop typing, release the keystrokes audio player and stop following the views. The coordinator
+     * can not be started again.
+     */
+    public void release()
+    {
+        pause();
+        mbResumeOnStart = false;
+        if( !mbReleased )
+        {
+            mbReleased = true;
+            for( Step step : mSteps )
+            {
+                step.mTypedTextView.removeOnAttachStateChangeListener( mOnAttachStateChangeListener );
+            }
+        }
+        releaseKeyStrokes();
+    }
+
+    /**
+     * @return long duration in milliseconds of the whole sequence.
+     */
+    public long getDurationMillis()
+    {
+        return mDurationMillis;
+    }
+
+    /**
+     * @return long position in milliseconds from the start of the sequence.
+     */
+    public long getPositionMillis()
+    {
+        if( mbPlaying )
+        {
+            return Math.min( SystemClock.uptimeMillis() - mStartUptimeMillis, mDurationMillis );
+        }
+        return mPositionMillis;
+    }
+
+    /**
+     * @return float progress of the whole sequence between 0 and 1.
+     */
+    public float getProgress()
+    {
+        return mDurationMillis == 0 ? 1f : ( float ) getPositionMillis() / mDurationMillis;
+    }
+
+    /**
+     * Register a callback to be invoked while typing.
+     *
+     * @param onTypingProgressListener {@link OnTypingProgressListener}
+     */
+    public void setOnTypingProgressListener( final OnTypingProgressListener onTypingProgressListener )
+    {
+        mOnTypingProgressListener = onTypingProgressListener;
+    }
+
+    private boolean isAttachedToWindow()
+    {
+        for( Step step : mSteps )
+        {
+            if( !ViewCompat.isAttachedToWindow( step.mTypedTextView ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void onTick()
+    {
+        long positionMillis = getPositionMillis();
+
+        boolean bTyping = false;
+        long nextEventMillis = Long.MAX_VALUE;
+        for( Step step : mSteps )
+        {
+            step.render( positionMillis, true );
+            bTyping |= step.isTyping( positionMillis );
+            nextEventMillis = Math.min( nextEventMillis, step.getNextEventMillis( positionMillis ) );
+        }
+
+        if( positionMillis >= mDurationMillis || nextEventMillis == Long.MAX_VALUE )
+        {
+            //sequence completed.
+            mPositionMillis = mDurationMillis;
+            mbPlaying = false;
+            stopKeyStrokes();
+
+            if( mOnTypingProgressListener != null )
+            {
+                mOnTypingProgressListener.onTypingProgress( 1f );
+                mOnTypingProgressListener.onTypingCompleted();
+            }
+            return;
+        }
+
+        //single voice plays while any of the views is being typed.
+        if( bTyping )
+        {
+            playKeyStrokes();
+        }
+        else
+        {
+            pauseKeyStrokes();
+        }
+
+        if( mOnTypingProgressListener != null )
+        {
+            mOnTypingProgressListener.onTypingProgress( getProgress() );
+        }
+
+        //wake up only when the next character of any view is due.
+        TypedTextView.getHandler().postDelayed( mScheduler, nextEventMillis - positionMillis );
+    }
+
+    private void playKeyStrokes()
+    {
+        if( !mbPlayKeyStrokesAudio )
+        {
+            return;
+        }
+        if( mMediaPlayer == null )
+        {
+            mMediaPlayer = KeyStrokesAudio.createPlayer( mContext, mKeyStrokeAudioRes );
+        }
+        if( mMediaPlayer != null && !mMediaPlayer.isPlaying() )
+        {
+            mMediaPlayer.start();
+        }
+    }
+
+    private void pauseKeyStrokes()
+    {
+        if( mMediaPlayer != null && mMediaPlayer.isPlaying() )
+        {
+            mMediaPlayer.pause();
+        }
+    }
+
+    private void releaseKeyStrokes()
+    {
+        if( mMediaPlayer != null )
+        {
+            KeyStrokesAudio.releasePlayer( mMediaPlayer );
+            mMediaPlayer = null;
+        }
+    }
+
+    private void stopKeyStrokes()
+    {
+        if( mMediaPlayer != null )
+        {
+            mMediaPlayer.pause();
+            mMediaPlayer.seekTo( 0 );
+        }
+    }
+
+    /**
+     * Returns a LifecycleObserver that expects to be notified when the LifecycleOwner changes state.
+     * Add this as a {@link LifecycleObserver} to {@link android.support.v7.app.AppCompatActivity} or
+     * {@link android.support.v4.app.Fragment}
+     *
+     * @return LifecycleObserver
+     */
+    public LifecycleObserver getLifecycleObserver()
+    {
+        return this;
+    }
+
+    @OnLifecycleEvent( Lifecycle.Event.ON_START )
+    void onCoordinatorStarted()
+    {
+        if( mbResumeOnStart )
+        {
+            mbResumeOnStart = false;
+            start();
+        }
+    }
+
+    @OnLifecycleEvent( Lifecycle.Event.ON_STOP )
+    void onCoordinatorStopped()
+    {
+        mbResumeOnStart = mbPlaying || mbResumeOnAttach;
+        pause();
+    }
+
+    @OnLifecycleEvent( Lifecycle.Event.ON_DESTROY )
+    void onCoordinatorDestroyed( LifecycleOwner owner )
+    {
+        release();
+        owner.getLifecycle().removeObserver( this );
+    }
+
+    /**
+     * A view typed from a fixed start time of the sequence.
+     */
+    private static final class Step
+    {
+        private final TypedTextView mTypedTextView;
+        private final int mTypingGeneration;
+
+        //time at which index number of characters are displayed, from 0 up to entire text.
+        private final long[] mRevealTimes;
+        private int mShownLength = Integer.MIN_VALUE;
+
+        /**
+         * @param powerSaving {@link TypedTextView.PowerSaving} to apply, OFF if the device is not
+         *                    saving power.
+         */
+        private Step( TypedTextView typedTextView, PreparedText preparedText, int typingGeneration,
+                      long startMillis, TypedTextView.PowerSaving powerSaving )
+        {
+            mTypedTextView = typedTextView;
+            mTypingGeneration = typingGeneration;
+            mRevealTimes = new long[ preparedText.length() + 1 ];
+            mRevealTimes[ 0 ] = startMillis;
+            for( int index = 0; index < preparedText.length(); index++ )
+            {
+                //entire text is revealed at the start of the step in instant mode.
+                long delayMillis = powerSaving == TypedTextView.PowerSaving.INSTANT ? 0 : preparedText.getDelay( index );
+                mRevealTimes[ index + 1 ] = mRevealTimes[ index ] + delayMillis;
+            }
+
+            //reveal several characters together to wake up less often, as the view itself does.
+            if( powerSaving == TypedTextView.PowerSaving.REDUCE )
+            {
+                for( int length = mRevealTimes.length - 2; length > 0; length-- )
+                {
+                    if( length % TypedTextView.REDUCED_TYPING_STEP != 0 )
+                    {
+                        mRevealTimes[ length ] = mRevealTimes[ length + 1 ];
+                    }
+                }
+            }
+        }
+
+        private long getEndMillis()
+        {
+            return mRevealTimes[ mRevealTimes.length - 1 ];
+        }
+
+        /**
+         * @return int number of characters displayed at given position, -1 if not started yet.
+         */
+        private int getLengthAt( long positionMillis )
+        {
+            int index = Arrays.binarySearch( mRevealTimes, positionMillis );
+            if( index < 0 )
+            {
+                //insertion point is the first reveal time after position.
+                return Math.max( -index - 2, -1 );
+            }
+
+            //characters without delay are revealed together.
+            while( index + 1 < mRevealTimes.length && mRevealTimes[ index + 1 ] == positionMillis )
+            {
+                index++;
+            }
+            return index;
+        }
+
+        private boolean isTyping( long positionMillis )
+        {
+            int length = getLengthAt( positionMillis );
+            return length >= 0 && length < mRevealTimes.length - 1;
+        }
+
+        private long getNextEventMillis( long positionMillis )
+        {
+            int length = getLengthAt( positionMillis );
+            return length < mRevealTimes.length - 1 ? mRevealTimes[ length + 1 ] : Long.MAX_VALUE;
+        }
+
+        private void render( long positionMillis, boolean bDispatch )
+        {
+            int length = getLengthAt( positionMillis );
+            if( length != mShownLength )
+            {
+                mShownLength = length;
+                mTypedTextView.showCoordinatedFrame( mTypingGeneration, length, bDispatch );
+            }
+        }
+    }
+
+    public static class Builder
+    {
+        private final Context mContext;
+        private final List< Step > mSteps = new ArrayList<>();
+        private long mLastStartMillis;
+        private long mSequenceEndMillis;
+        private boolean mbPlayKeyStrokesAudio = true;
+        private int mKeyStrokeAudioRes = R.raw.keystrokes;
+        private final boolean mbPowerConstrained;
+        private boolean mbSavingPower;
+
+        /**
+         * Device power state is checked once here and applies to the whole sequence.
+         *
+         * @param context {@link Context}
+         */
+        public Builder( @NonNull final Context context )
+        {
+            mContext = Preconditions.checkNotNull( context ).getApplicationContext();
+            mbPowerConstrained = PowerState.isConstrained( mContext );
+        }
+
+        /**
+         * Type the view after every previously added view has been typed.
+         *
+         * @param typedTextView {@link TypedTextView} to be typed. Its typing configuration is used.
+         * @param text          {@link String} text to be typed.
+         */
+        public Builder then( @NonNull final TypedTextView typedTextView, @NonNull final String text )
+        {
+            return then( typedTextView, text, 0 );
+        }
+
+        /**
+         * Type the view after every previously added view has been typed.
+         *
+         * @param typedTextView {@link TypedTextView} to be typed. Its typing configuration is used.
+         * @param text          {@link String} text to be typed.
+         * @param offsetMillis  long duration in milliseconds to wait before typing the view.
+         */
+        public Builder then( @NonNull final TypedTextView typedTextView, @NonNull final String text, final long offsetMillis )
+        {
+            addStep( typedTextView, text, mSequenceEndMillis + offsetMillis );
+            return this;
+        }
+
+        /**
+         * Type the view together with the previously added view.
+         *
+         * @param typedTextView {@link TypedTextView} to be typed. Its typing configuration is used.
+         * @param text          {@link String} text to be typed.
+         */
+        public Builder with( @NonNull final TypedTextView typedTextView, @NonNull final String text )
+        {
+            return with( typedTextView, text, 0 );
+        }
+
+        /**
+         * Type the view together with the previously added view.
+         *
+         * @param typedTextView {@link TypedTextView} to be typed. Its typing configuration is used.
+         * @param text          {@link String} text to be typed.
+         * @param offsetMillis  long duration in milliseconds to wait after the previously added view starts.
+         */
+        public Builder with( @NonNull final TypedTextView typedTextView, @NonNull final String text, final long offsetMillis )
+        {
+            addStep( typedTextView, text, mLastStartMillis + offsetMillis );
+            return this;
+        }
+
+        /**
+         * Play default keystrokes sound while any of the views is being typed
+         *
+         * @param bPlayKeystrokesAudio boolean
+         */
+        public Builder playKeyStrokesAudio( final boolean bPlayKeystrokesAudio )
+        {
+            mbPlayKeyStrokesAudio = bPlayKeystrokesAudio;
+            return this;
+        }
+
+        /**
+         * Play specified keystrokes sound while any of the views is being typed
+         *
+         * @param keyStrokeAudioRes @RawRes int resourceId of audio resource
+         */
+        public Builder playKeyStrokesAudioWith( @RawRes final int keyStrokeAudioRes )
+        {
+            mbPlayKeyStrokesAudio = true;
+            mKeyStrokeAudioRes = keyStrokeAudioRes;
+            return this;
+        }
+
+        public TypingCoordinator build()
+        {
+            return new TypingCoordinator( this );
+        }
+
+        private void addStep( TypedTextView typedTextView, String text, long startMillis )
+        {
+            Preconditions.checkNotNull( typedTextView );
+            Preconditions.checkArgument( startMillis >= 0, "step can not start before the sequence" );
+            for( Step step : mSteps )
+            {
+                Preconditions.checkArgument( step.mTypedTextView != typedTextView, "view is already typed by this coordinator" );
+            }
+
+            TypedTextView.PowerSaving powerSaving = mbPowerConstrained ? typedTextView.getPowerSaving() : TypedTextView.PowerSaving.OFF;
+            mbSavingPower |= powerSaving != TypedTextView.PowerSaving.OFF;
+
+            PreparedText preparedText = typedTextView.prepareCoordinatedTyping( text );
+            Step step = new Step( typedTextView, preparedText, typedTextView.getTypingGeneration(), startMillis, powerSaving );
+            mSteps.add( step );
+            mLastStartMillis = startMillis;
+            mSequenceEndMillis = Math.max( mSequenceEndMillis, step.getEndMillis() );
+        }
+    }
+}
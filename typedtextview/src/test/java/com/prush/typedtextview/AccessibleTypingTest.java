@@ -0,0 +1,217 @@
+package com.prush.typedtextview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityManager;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 28 )
+@LooperMode( LooperMode.Mode.PAUSED )
+public class AccessibleTypingTest
+{
+    private static final String TEXT = "He had no friends, no family.";
+
+    private Activity mActivity;
+    private EventRecordingLayout mContainer;
+    private TypedTextView mTypedTextView;
+
+    @Before
+    public void setUp()
+    {
+        mActivity = Robolectric.buildActivity( Activity.class ).setup().get();
+
+        //views only send accessibility events while an accessibility service is enabled.
+        AccessibilityManager accessibilityManager =
+                ( AccessibilityManager ) mActivity.getSystemService( Context.ACCESSIBILITY_SERVICE );
+        shadowOf( accessibilityManager ).setEnabled( true );
+
+        mContainer = new EventRecordingLayout( mActivity );
+        mActivity.setContentView( mContainer );
+
+        mTypedTextView = new TypedTextView( mActivity );
+        mTypedTextView.playKeyStrokesAudio( false );
+        mContainer.addView( mTypedTextView );
+    }
+
+    @Test
+    public void completeTextIsExposedBeforeTypingStarts()
+    {
+        mTypedTextView.setTypedText( TEXT );
+
+        assertEquals( TEXT, mTypedTextView.getContentDescription() );
+    }
+
+    @Test
+    public void disablingAccessibleTypingClearsContentDescription()
+    {
+        mTypedTextView.setTypedText( TEXT );
+        mTypedTextView.accessibleTyping( false );
+
+        assertNull( mTypedTextView.getContentDescription() );
+    }
+
+    @Test
+    public void contentDescriptionSetByAppIsKept()
+    {
+        mTypedTextView.setContentDescription( "Story" );
+        mTypedTextView.setTypedText( TEXT );
+
+        assertEquals( "Story", mTypedTextView.getContentDescription() );
+
+        mTypedTextView.accessibleTyping( false );
+
+        assertEquals( "Story", mTypedTextView.getContentDescription() );
+    }
+
+    @Test
+    public void nextTextReplacesOwnContentDescription()
+    {
+        mTypedTextView.setTypedText( "Title" );
+        mTypedTextView.setTypedText( TEXT );
+
+        assertEquals( TEXT, mTypedTextView.getContentDescription() );
+    }
+
+    @Test
+    public void typingAndBlinkingSendNoTextChangedEvents()
+    {
+        mTypedTextView.setTypedText( TEXT );
+        idle();
+
+        assertEquals( 0, mContainer.mTextChangedEvents );
+    }
+
+    @Test
+    public void typingSendsTextChangedEventsWithoutAccessibleTyping()
+    {
+        //guards the test above against events that are never sent in the first place.
+        mTypedTextView.accessibleTyping( false );
+        mTypedTextView.setTypedText( TEXT );
+        idle();
+
+        assertTrue( mContainer.mTextChangedEvents > 0 );
+    }
+
+    @Test
+    public void completeTextIsAnnouncedOnce()
+    {
+        mTypedTextView.setTypedText( TEXT );
+        idle();
+
+        assertEquals( 1, mContainer.mAnnouncements.size() );
+        assertEquals( TEXT, mContainer.mAnnouncements.get( 0 ) );
+    }
+
+    @Test
+    public void instantTypingAnnouncesCompleteText()
+    {
+        PowerManager powerManager = ( PowerManager ) mActivity.getSystemService( Context.POWER_SERVICE );
+        shadowOf( powerManager ).setIsPowerSaveMode( true );
+        mTypedTextView.setPowerSaving( TypedTextView.PowerSaving.INSTANT );
+
+        mTypedTextView.setTypedText( TEXT );
+        idle();
+
+        assertEquals( 1, mContainer.mAnnouncements.size() );
+        assertEquals( TEXT, mContainer.mAnnouncements.get( 0 ) );
+    }
+
+    @Test
+    public void instantTypingAnnouncesOnceAttached()
+    {
+        PowerManager powerManager = ( PowerManager ) mActivity.getSystemService( Context.POWER_SERVICE );
+        shadowOf( powerManager ).setIsPowerSaveMode( true );
+        mTypedTextView.setPowerSaving( TypedTextView.PowerSaving.INSTANT );
+        mContainer.removeView( mTypedTextView );
+
+        mTypedTextView.setTypedText( TEXT );
+        assertEquals( 0, mContainer.mAnnouncements.size() );
+
+        mContainer.addView( mTypedTextView );
+        idle();
+
+        assertEquals( 1, mContainer.mAnnouncements.size() );
+        assertEquals( TEXT, mContainer.mAnnouncements.get( 0 ) );
+    }
+
+    @Test
+    public void coordinatedTypingAnnouncesCompleteTextOnce()
+    {
+        TypingCoordinator coordinator = new TypingCoordinator.Builder( mActivity )
+                .playKeyStrokesAudio( false )
+                .then( mTypedTextView, TEXT, 500 )
+                .build();
+
+        coordinator.start();
+        idle();
+
+        assertEquals( 1, mContainer.mAnnouncements.size() );
+        assertEquals( TEXT, mContainer.mAnnouncements.get( 0 ) );
+    }
+
+    @Test
+    public void completeTextIsDisplayedWhenTypingEnds()
+    {
+        mTypedTextView.showCursor( false );
+        mTypedTextView.setTypedText( TEXT );
+        idle();
+
+        //getText() is overridden to return the text to be typed, check what is actually laid out.
+        mTypedTextView.measure( View.MeasureSpec.UNSPECIFIED, View.MeasureSpec.UNSPECIFIED );
+        assertEquals( TEXT, mTypedTextView.getLayout().getText().toString() );
+    }
+
+    private static void idle()
+    {
+        shadowOf( Looper.getMainLooper() ).idleFor( 30, TimeUnit.SECONDS );
+    }
+
+    private static class EventRecordingLayout extends FrameLayout
+    {
+        private int mTextChangedEvents;
+        private final List< String > mAnnouncements = new ArrayList<>();
+
+        private EventRecordingLayout( Context context )
+        {
+            super( context );
+        }
+
+        @Override
+        public boolean requestSendAccessibilityEvent( View child, AccessibilityEvent event )
+        {
+            if( event.getEventType() == AccessibilityEvent.TYPE_VIEW_TEXT_CHANGED
+                    || ( event.getEventType() == AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED
+                    && ( event.getContentChangeTypes() & AccessibilityEvent.CONTENT_CHANGE_TYPE_TEXT ) != 0 ) )
+            {
+                mTextChangedEvents++;
+            }
+            else if( event.getEventType() == AccessibilityEvent.TYPE_ANNOUNCEMENT )
+            {
+                mAnnouncements.add( event.getText().get( 0 ).toString() );
+            }
+            return super.requestSendAccessibilityEvent( child, event );
+        }
+    }
+}
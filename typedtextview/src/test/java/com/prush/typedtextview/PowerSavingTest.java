@@ -0,0 +1,240 @@
+package com.prush.typedtextview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.provider.Settings;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowMediaPlayer;
+import org.robolectric.shadows.util.DataSource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Counts frames typed, i.e. main thread wakeups, with and without power saving.
+ */
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 28 )
+@LooperMode( LooperMode.Mode.PAUSED )
+public class PowerSavingTest
+{
+    private static final String TEXT = "Once there lived a monkey in a jamun tree by a river. The monkey was alone.";
+    private static final long CURSOR_BLINK_SPEED = 500;
+
+    private Context mContext;
+    private FrameLayout mContainer;
+    private FrameCountingTypedTextView mTypedTextView;
+
+    @Before
+    public void setUp()
+    {
+        ShadowMediaPlayer.setMediaInfoProvider( new ShadowMediaPlayer.MediaInfoProvider()
+        {
+            @Override
+            public ShadowMediaPlayer.MediaInfo get( DataSource dataSource )
+            {
+                return new ShadowMediaPlayer.MediaInfo();
+            }
+        } );
+
+        Activity activity = Robolectric.buildActivity( Activity.class ).setup().get();
+        mContainer = new FrameLayout( activity );
+        activity.setContentView( mContainer );
+
+        mContext = activity;
+        mTypedTextView = new FrameCountingTypedTextView( mContext );
+        mTypedTextView.randomizeTypingSpeed( false );
+        mContainer.addView( mTypedTextView );
+    }
+
+    @Test
+    public void typesEveryCharacterWhenNotConstrained()
+    {
+        mTypedTextView.showCursor( false );
+
+        int frames = typeAndCountFrames();
+
+        //clearing frame, one frame per character and the final one.
+        assertEquals( 1 + TEXT.length() + 1, frames );
+    }
+
+    @Test
+    public void batterySaverRevealsSeveralCharactersPerWakeup()
+    {
+        setPowerSaveMode( true );
+        mTypedTextView.showCursor( false );
+
+        int frames = typeAndCountFrames();
+
+        assertEquals( 1 + steps( TEXT.length() ) + 1, frames );
+        assertEquals( TEXT, mTypedTextView.mLastText );
+    }
+
+    @Test
+    public void disabledAnimatorsRevealSeveralCharactersPerWakeup()
+    {
+        Settings.Global.putFloat( mContext.getContentResolver(), Settings.Global.ANIMATOR_DURATION_SCALE, 0f );
+        mTypedTextView.showCursor( false );
+
+        int frames = typeAndCountFrames();
+
+        assertEquals( 1 + steps( TEXT.length() ) + 1, frames );
+    }
+
+    @Test
+    public void cursorStopsBlinkingAfterTimeoutWhenConstrained()
+    {
+        setPowerSaveMode( true );
+        mTypedTextView.setCursorBlinkSpeed( CURSOR_BLINK_SPEED );
+
+        int frames = typeAndCountFrames();
+        int blinks = ( int ) ( TypedTextView.REDUCED_CURSOR_BLINK_TIMEOUT / CURSOR_BLINK_SPEED );
+
+        //clearing frame, typing frames, final frame, limited blinks and the frame removing cursor.
+        assertEquals( 1 + steps( TEXT.length() ) + 1 + blinks + 1, frames );
+        assertEquals( TEXT, mTypedTextView.mLastText );
+    }
+
+    @Test
+    public void cursorDoesNotBlinkWithoutIntervalWhenConstrained()
+    {
+        setPowerSaveMode( true );
+        mTypedTextView.setCursorBlinkSpeed( 0 );
+
+        int frames = typeAndCountFrames();
+
+        //clearing frame, typing frames, final frame and the frame removing cursor.
+        assertEquals( 1 + steps( TEXT.length() ) + 1 + 1, frames );
+        assertEquals( TEXT, mTypedTextView.mLastText );
+    }
+
+    @Test
+    public void keystrokesAudioIsPlayedWhenNotConstrained()
+    {
+        int players = KeyStrokesAudio.sActivePlayers;
+
+        mTypedTextView.playKeyStrokesAudio( true );
+        typeAndCountFrames();
+
+        assertEquals( players + 1, KeyStrokesAudio.sActivePlayers );
+        mTypedTextView.release();
+    }
+
+    @Test
+    public void keystrokesAudioIsSkippedWhenConstrained()
+    {
+        setPowerSaveMode( true );
+        int players = KeyStrokesAudio.sActivePlayers;
+
+        mTypedTextView.playKeyStrokesAudio( true );
+        typeAndCountFrames();
+
+        assertEquals( players, KeyStrokesAudio.sActivePlayers );
+    }
+
+    @Test
+    public void instantModeShowsTextWithoutWakeups()
+    {
+        setPowerSaveMode( true );
+        mTypedTextView.setPowerSaving( TypedTextView.PowerSaving.INSTANT );
+
+        int frames = typeAndCountFrames();
+
+        assertEquals( 1, frames );
+        assertEquals( TEXT, mTypedTextView.mLastText );
+    }
+
+    @Test
+    public void instantModeReportsLastCharacterOnceAttached()
+    {
+        setPowerSaveMode( true );
+        mTypedTextView.setPowerSaving( TypedTextView.PowerSaving.INSTANT );
+        mContainer.removeView( mTypedTextView );
+
+        //as from XML, listener is registered after the text is set.
+        mTypedTextView.setTypedText( TEXT );
+        final int[] typedIndexes = { 0, -1 };
+        mTypedTextView.setOnCharacterTypedListener( new TypedTextView.OnCharacterTypedListener()
+        {
+            @Override
+            public void onCharacterTyped( char character, int index )
+            {
+                typedIndexes[ 0 ]++;
+                typedIndexes[ 1 ] = index;
+            }
+        } );
+        assertEquals( 0, typedIndexes[ 0 ] );
+
+        mContainer.addView( mTypedTextView );
+        mContainer.removeView( mTypedTextView );
+        mContainer.addView( mTypedTextView );
+
+        assertEquals( 1, typedIndexes[ 0 ] );
+        assertEquals( TEXT.length() - 1, typedIndexes[ 1 ] );
+    }
+
+    @Test
+    public void powerSavingOffIgnoresDeviceState()
+    {
+        setPowerSaveMode( true );
+        mTypedTextView.setPowerSaving( TypedTextView.PowerSaving.OFF );
+        mTypedTextView.showCursor( false );
+
+        int frames = typeAndCountFrames();
+
+        assertEquals( 1 + TEXT.length() + 1, frames );
+    }
+
+    private int typeAndCountFrames()
+    {
+        mTypedTextView.splitSentences( false );
+        mTypedTextView.mFrames = 0;
+        mTypedTextView.setTypedText( TEXT );
+
+        //no further frames are expected after a minute of typing.
+        shadowOf( Looper.getMainLooper() ).idleFor( 60, TimeUnit.SECONDS );
+        return mTypedTextView.mFrames;
+    }
+
+    private static int steps( int length )
+    {
+        return ( length + TypedTextView.REDUCED_TYPING_STEP - 1 ) / TypedTextView.REDUCED_TYPING_STEP;
+    }
+
+    private void setPowerSaveMode( boolean bPowerSaveMode )
+    {
+        PowerManager powerManager = ( PowerManager ) mContext.getSystemService( Context.POWER_SERVICE );
+        shadowOf( powerManager ).setIsPowerSaveMode( bPowerSaveMode );
+    }
+
+    private static class FrameCountingTypedTextView extends TypedTextView
+    {
+        private int mFrames;
+        private String mLastText;
+
+        private FrameCountingTypedTextView( Context context )
+        {
+            super( context );
+        }
+
+        @Override
+        protected void onTextChanged( CharSequence text, int start, int lengthBefore, int lengthAfter )
+        {
+            super.onTextChanged( text, start, lengthBefore, lengthAfter );
+            mFrames++;
+            mLastText = text.toString();
+        }
+    }
+}
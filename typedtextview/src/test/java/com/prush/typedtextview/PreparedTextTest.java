@@ -0,0 +1,95 @@
+package com.prush.typedtextview;
+
+import android.content.ComponentCallbacks2;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 28 )
+public class PreparedTextTest
+{
+    private static final String TEXT = "The monkey was alone. He had no friends, no family. He was happy.";
+
+    @Before
+    public void setUp()
+    {
+        PreparedText.clearCache();
+    }
+
+    @Test
+    public void sameTextAndConfigurationIsCacheHit()
+    {
+        PreparedText first = PreparedText.obtain( TEXT, true, true, 175, 75, 1500 );
+        PreparedText second = PreparedText.obtain( TEXT, true, true, 175, 75, 1500 );
+
+        assertSame( first, second );
+    }
+
+    @Test
+    public void differentConfigurationIsCacheMiss()
+    {
+        PreparedText first = PreparedText.obtain( TEXT, true, true, 175, 75, 1500 );
+
+        assertNotSame( first, PreparedText.obtain( TEXT, false, true, 175, 75, 1500 ) );
+        assertNotSame( first, PreparedText.obtain( TEXT, true, true, 100, 75, 1500 ) );
+        assertNotSame( first, PreparedText.obtain( TEXT, true, true, 175, 250, 1500 ) );
+        assertNotSame( first, PreparedText.obtain( TEXT, true, false, 175, 75, 1500 ) );
+        assertNotSame( first, PreparedText.obtain( TEXT, true, true, 175, 75, 500 ) );
+    }
+
+    @Test
+    public void sentencesAreSplitExceptLastFullStop()
+    {
+        PreparedText preparedText = PreparedText.obtain( TEXT, true, false, 175, 75, 1500 );
+
+        assertEquals( "The monkey was alone.\nHe had no friends, no family.\nHe was happy.", preparedText.getText() );
+    }
+
+    @Test
+    public void delaysPauseAfterSentencesAndClauses()
+    {
+        PreparedText preparedText = PreparedText.obtain( "Hi, you.", false, false, 175, 75, 1500 );
+
+        assertFalse( preparedText.isSentencePause( 2 ) );
+        assertEquals( 175, preparedText.getDelay( 2 ) );
+        assertTrue( preparedText.isSentencePause( 3 ) );
+        assertEquals( 1500, preparedText.getDelay( 3 ) );
+    }
+
+    @Test
+    public void lowMemoryClearsCacheOfPreparedTexts()
+    {
+        TypedTextView typedTextView = new TypedTextView( RuntimeEnvironment.application );
+        typedTextView.prewarm( Arrays.asList( TEXT ) );
+        PreparedText first = PreparedText.obtain( TEXT, true, true, 175, 75, 1500 );
+
+        RuntimeEnvironment.application.onTrimMemory( ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW );
+
+        assertNotSame( first, PreparedText.obtain( TEXT, true, true, 175, 75, 1500 ) );
+    }
+
+    @Test
+    public void prewarmMakesSetTypedTextCacheHit()
+    {
+        TypedTextView typedTextView = new TypedTextView( RuntimeEnvironment.application );
+        typedTextView.prewarm( Arrays.asList( "Title", TEXT ) );
+
+        int hitCount = PreparedText.cacheHitCount();
+        typedTextView.setTypedText( TEXT );
+
+        assertEquals( hitCount + 1, PreparedText.cacheHitCount() );
+    }
+}
@@ -0,0 +1,249 @@
+package com.prush.typedtextview;
+
+import android.app.Activity;
+import android.arch.lifecycle.Lifecycle;
+import android.arch.lifecycle.LifecycleOwner;
+import android.arch.lifecycle.LifecycleRegistry;
+import android.content.Context;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowMediaPlayer;
+import org.robolectric.shadows.util.DataSource;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Creates and discards lots of {@link TypedTextView} instances and checks that neither pending
+ * messages nor keystroke audio players outlive them.
+ */
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 28 )
+@LooperMode( LooperMode.Mode.PAUSED )
+public class TypedTextViewLifecycleTest
+{
+    private static final int INSTANCES = 300;
+    private static final String TEXT = "Once there lived a monkey in a jamun tree by a river. The monkey was alone.";
+
+    @Before
+    public void setUp()
+    {
+        ShadowMediaPlayer.setMediaInfoProvider( new ShadowMediaPlayer.MediaInfoProvider()
+        {
+            @Override
+            public ShadowMediaPlayer.MediaInfo get( DataSource dataSource )
+            {
+                return new ShadowMediaPlayer.MediaInfo();
+            }
+        } );
+    }
+
+    @Test
+    public void destroyingLifecycleOwnerReleasesAllInstances()
+    {
+        int baselinePlayers = KeyStrokesAudio.sActivePlayers;
+        TestLifecycleOwner owner = new TestLifecycleOwner();
+        FrameLayout container = createContainer();
+
+        List< WeakReference< TypedTextView > > references = createTypingViews( owner, container );
+
+        idleMainLooper( 1 );
+        assertEquals( baselinePlayers + INSTANCES, KeyStrokesAudio.sActivePlayers );
+
+        owner.destroy();
+
+        assertEquals( baselinePlayers, KeyStrokesAudio.sActivePlayers );
+
+        //owner is still alive, so views can only be collected if they were removed as observers.
+        container.removeAllViews();
+        assertAllCollected( references );
+        assertEquals( Lifecycle.State.DESTROYED, owner.getLifecycle().getCurrentState() );
+    }
+
+    @Test
+    public void detachingFromWindowReleasesAllInstances()
+    {
+        int baselinePlayers = KeyStrokesAudio.sActivePlayers;
+        FrameLayout container = createContainer();
+
+        List< WeakReference< TypedTextView > > references = createTypingViews( null, container );
+
+        idleMainLooper( 1 );
+        assertEquals( baselinePlayers + INSTANCES, KeyStrokesAudio.sActivePlayers );
+
+        container.removeAllViews();
+
+        assertEquals( baselinePlayers, KeyStrokesAudio.sActivePlayers );
+        assertAllCollected( references );
+    }
+
+    @Test
+    public void neverAttachedViewsScheduleNothing()
+    {
+        int baselinePlayers = KeyStrokesAudio.sActivePlayers;
+
+        List< WeakReference< TypedTextView > > references = createTypingViews( null, null );
+
+        idleMainLooper( 1 );
+        assertEquals( baselinePlayers, KeyStrokesAudio.sActivePlayers );
+
+        //a pending message would keep its view reachable through the shared handler.
+        assertAllCollected( references );
+    }
+
+    @Test
+    public void keystrokesAudioStartsWithFirstFrame()
+    {
+        int baselinePlayers = KeyStrokesAudio.sActivePlayers;
+        FrameLayout container = createContainer();
+
+        TypedTextView typedTextView = new TypedTextView( container.getContext() );
+        typedTextView.setTypedText( TEXT );
+        container.addView( typedTextView );
+
+        //attaching schedules the first frame, audio is not due before it.
+        assertEquals( baselinePlayers, KeyStrokesAudio.sActivePlayers );
+
+        idleMainLooper( 1 );
+        assertEquals( baselinePlayers + 1, KeyStrokesAudio.sActivePlayers );
+
+        container.removeView( typedTextView );
+    }
+
+    @Test
+    public void lifecycleStartAfterDetachDoesNotResumeTyping()
+    {
+        int baselinePlayers = KeyStrokesAudio.sActivePlayers;
+        TestLifecycleOwner owner = new TestLifecycleOwner();
+        FrameLayout container = createContainer();
+
+        TypedTextView typedTextView = new TypedTextView( container.getContext() );
+        typedTextView.setTypedText( TEXT );
+        owner.getLifecycle().addObserver( typedTextView.getLifecycleObserver() );
+        container.addView( typedTextView );
+
+        idleMainLooper( 1 );
+        assertEquals( baselinePlayers + 1, KeyStrokesAudio.sActivePlayers );
+
+        container.removeView( typedTextView );
+        owner.stop();
+        owner.start();
+        idleMainLooper( 60 );
+
+        //resumed typing would have created a new keystrokes audio player.
+        assertEquals( baselinePlayers, KeyStrokesAudio.sActivePlayers );
+
+        owner.destroy();
+    }
+
+    private static FrameLayout createContainer()
+    {
+        Activity activity = Robolectric.buildActivity( Activity.class ).setup().get();
+        FrameLayout container = new FrameLayout( activity );
+        activity.setContentView( container );
+        return container;
+    }
+
+    private static List< WeakReference< TypedTextView > > createTypingViews( LifecycleOwner owner, FrameLayout container )
+    {
+        Context context = container != null ? container.getContext() : RuntimeEnvironment.application;
+        List< WeakReference< TypedTextView > > references = new ArrayList<>();
+        for( int i = 0; i < INSTANCES; i++ )
+        {
+            TypedTextView typedTextView = new TypedTextView( context );
+            typedTextView.setTypedText( TEXT );
+
+            if( owner != null )
+            {
+                owner.getLifecycle().addObserver( typedTextView.getLifecycleObserver() );
+            }
+            if( container != null )
+            {
+                container.addView( typedTextView );
+            }
+            references.add( new WeakReference<>( typedTextView ) );
+        }
+        return references;
+    }
+
+    private static void idleMainLooper( long seconds )
+    {
+        shadowOf( Looper.getMainLooper() ).idleFor( seconds, TimeUnit.SECONDS );
+    }
+
+    private static void assertAllCollected( List< WeakReference< TypedTextView > > references )
+    {
+        for( int attempt = 0; attempt < 10 && !allCleared( references ); attempt++ )
+        {
+            System.gc();
+            System.runFinalization();
+        }
+
+        for( WeakReference< TypedTextView > reference : references )
+        {
+            assertNull( "TypedTextView retained after release", reference.get() );
+        }
+    }
+
+    private static boolean allCleared( List< WeakReference< TypedTextView > > references )
+    {
+        for( WeakReference< TypedTextView > reference : references )
+        {
+            if( reference.get() != null )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class TestLifecycleOwner implements LifecycleOwner
+    {
+        private final LifecycleRegistry mLifecycleRegistry = new LifecycleRegistry( this );
+
+        private TestLifecycleOwner()
+        {
+            mLifecycleRegistry.handleLifecycleEvent( Lifecycle.Event.ON_CREATE );
+            mLifecycleRegistry.handleLifecycleEvent( Lifecycle.Event.ON_START );
+        }
+
+        private void start()
+        {
+            mLifecycleRegistry.handleLifecycleEvent( Lifecycle.Event.ON_START );
+        }
+
+        private void stop()
+        {
+            mLifecycleRegistry.handleLifecycleEvent( Lifecycle.Event.ON_STOP );
+        }
+
+        private void destroy()
+        {
+            mLifecycleRegistry.handleLifecycleEvent( Lifecycle.Event.ON_STOP );
+            mLifecycleRegistry.handleLifecycleEvent( Lifecycle.Event.ON_DESTROY );
+        }
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle()
+        {
+            return mLifecycleRegistry;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.prush.typedtextview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowMediaPlayer;
+import org.robolectric.shadows.util.DataSource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 28 )
+@LooperMode( LooperMode.Mode.PAUSED )
+public class TypingCoordinatorTest
+{
+    private static final long TYPING_SPEED = 10;
+    private static final String TITLE = "Title";
+    private static final String SUBTITLE = "Subtitle";
+    private static final String BODY = "Once there lived a monkey";
+
+    private TypedTextView mTitle;
+    private TypedTextView mSubtitle;
+    private TypedTextView mBody;
+    private LinearLayout mContainer;
+    private int mCompletions;
+
+    @Before
+    public void setUp()
+    {
+        ShadowMediaPlayer.setMediaInfoProvider( new ShadowMediaPlayer.MediaInfoProvider()
+        {
+            @Override
+            public ShadowMediaPlayer.MediaInfo get( DataSource dataSource )
+            {
+                return new ShadowMediaPlayer.MediaInfo();
+            }
+        } );
+
+        Activity activity = Robolectric.buildActivity( Activity.class ).setup().get();
+        mContainer = new LinearLayout( activity );
+        mContainer.setOrientation( LinearLayout.VERTICAL );
+        activity.setContentView( mContainer );
+
+        mTitle = createTypedTextView( mContainer );
+        mSubtitle = createTypedTextView( mContainer );
+        mBody = createTypedTextView( mContainer );
+    }
+
+    @Test
+    public void sequentialStepsStartWhenPreviousOnesEnd()
+    {
+        TypingCoordinator coordinator = new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .playKeyStrokesAudio( false )
+                .then( mTitle, TITLE )
+                .then( mSubtitle, SUBTITLE, 100 )
+                .build();
+
+        assertEquals( TITLE.length() * TYPING_SPEED + 100 + SUBTITLE.length() * TYPING_SPEED, coordinator.getDurationMillis() );
+
+        coordinator.start();
+        idleFor( TITLE.length() * TYPING_SPEED );
+
+        assertEquals( TITLE, displayedText( mTitle ) );
+        assertEquals( "", displayedText( mSubtitle ) );
+
+        idleFor( coordinator.getDurationMillis() );
+
+        assertEquals( SUBTITLE, displayedText( mSubtitle ) );
+    }
+
+    @Test
+    public void parallelStepsTypeTogether()
+    {
+        TypingCoordinator coordinator = new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .playKeyStrokesAudio( false )
+                .then( mTitle, TITLE )
+                .with( mSubtitle, SUBTITLE, 2 * TYPING_SPEED )
+                .build();
+
+        assertEquals( 2 * TYPING_SPEED + SUBTITLE.length() * TYPING_SPEED, coordinator.getDurationMillis() );
+
+        coordinator.start();
+        idleFor( 4 * TYPING_SPEED );
+
+        assertEquals( "Titl|", displayedText( mTitle ) );
+        assertEquals( "Su|", displayedText( mSubtitle ) );
+    }
+
+    @Test
+    public void completesOnceWithFullProgress()
+    {
+        TypingCoordinator coordinator = createSequence();
+        final float[] progress = new float[ 1 ];
+        coordinator.setOnTypingProgressListener( new TypingCoordinator.OnTypingProgressListener()
+        {
+            @Override
+            public void onTypingProgress( float typingProgress )
+            {
+                assertTrue( typingProgress >= progress[ 0 ] );
+                progress[ 0 ] = typingProgress;
+            }
+
+            @Override
+            public void onTypingCompleted()
+            {
+                mCompletions++;
+            }
+        } );
+
+        coordinator.start();
+        idleFor( 2 * coordinator.getDurationMillis() );
+
+        assertEquals( 1, mCompletions );
+        assertEquals( 1f, progress[ 0 ], 0f );
+        assertEquals( TITLE, displayedText( mTitle ) );
+        assertEquals( SUBTITLE, displayedText( mSubtitle ) );
+        assertEquals( BODY, displayedText( mBody ) );
+    }
+
+    @Test
+    public void seekDisplaysSameFramesAsTyping()
+    {
+        TypingCoordinator coordinator = createSequence();
+        long positionMillis = ( TITLE.length() + 3 ) * TYPING_SPEED;
+
+        coordinator.seekTo( positionMillis );
+        String title = displayedText( mTitle );
+        String subtitle = displayedText( mSubtitle );
+        String body = displayedText( mBody );
+
+        coordinator.seekTo( 0 );
+        assertEquals( "|", displayedText( mTitle ) );
+        assertEquals( "", displayedText( mSubtitle ) );
+
+        coordinator.start();
+        idleFor( positionMillis );
+
+        assertEquals( title, displayedText( mTitle ) );
+        assertEquals( subtitle, displayedText( mSubtitle ) );
+        assertEquals( body, displayedText( mBody ) );
+        assertEquals( "Sub|", subtitle );
+    }
+
+    @Test
+    public void pauseStopsTypingUntilStarted()
+    {
+        TypingCoordinator coordinator = createSequence();
+        coordinator.start();
+        idleFor( 2 * TYPING_SPEED );
+
+        coordinator.pause();
+        String title = displayedText( mTitle );
+        idleFor( coordinator.getDurationMillis() );
+
+        assertEquals( title, displayedText( mTitle ) );
+        assertFalse( coordinator.getProgress() >= 1f );
+
+        coordinator.start();
+        idleFor( coordinator.getDurationMillis() );
+
+        assertEquals( BODY, displayedText( mBody ) );
+    }
+
+    @Test
+    public void batterySaverRevealsSeveralCharactersPerWakeup()
+    {
+        setPowerSaveMode( true );
+        TypingCoordinator coordinator = new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .playKeyStrokesAudio( false )
+                .then( mTitle, TITLE )
+                .build();
+
+        coordinator.start();
+        idleFor( ( TypedTextView.REDUCED_TYPING_STEP - 1 ) * TYPING_SPEED );
+        assertEquals( "|", displayedText( mTitle ) );
+
+        idleFor( TYPING_SPEED );
+        assertEquals( TITLE.substring( 0, TypedTextView.REDUCED_TYPING_STEP ) + "|", displayedText( mTitle ) );
+
+        //same duration as without power saving, only fewer frames.
+        idleFor( coordinator.getDurationMillis() );
+        assertEquals( TITLE, displayedText( mTitle ) );
+        assertEquals( TITLE.length() * TYPING_SPEED, coordinator.getDurationMillis() );
+    }
+
+    @Test
+    public void instantModeRevealsEntireTextWhenStepStarts()
+    {
+        setPowerSaveMode( true );
+        mTitle.setPowerSaving( TypedTextView.PowerSaving.INSTANT );
+        TypingCoordinator coordinator = new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .playKeyStrokesAudio( false )
+                .then( mTitle, TITLE )
+                .then( mSubtitle, SUBTITLE )
+                .build();
+
+        assertEquals( SUBTITLE.length() * TYPING_SPEED, coordinator.getDurationMillis() );
+
+        coordinator.start();
+        assertEquals( TITLE, displayedText( mTitle ) );
+
+        idleFor( coordinator.getDurationMillis() );
+        assertEquals( SUBTITLE, displayedText( mSubtitle ) );
+    }
+
+    @Test
+    public void powerSavingOffIgnoresDeviceState()
+    {
+        setPowerSaveMode( true );
+        mTitle.setPowerSaving( TypedTextView.PowerSaving.OFF );
+        TypingCoordinator coordinator = new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .playKeyStrokesAudio( false )
+                .then( mTitle, TITLE )
+                .build();
+
+        coordinator.start();
+        idleFor( TYPING_SPEED );
+
+        assertEquals( "T|", displayedText( mTitle ) );
+    }
+
+    @Test
+    public void keystrokesAudioPlayerIsCountedAndReleased()
+    {
+        int players = KeyStrokesAudio.sActivePlayers;
+        TypingCoordinator coordinator = new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .then( mTitle, TITLE )
+                .build();
+
+        coordinator.start();
+        idleFor( TYPING_SPEED );
+        assertEquals( players + 1, KeyStrokesAudio.sActivePlayers );
+
+        coordinator.release();
+        assertEquals( players, KeyStrokesAudio.sActivePlayers );
+    }
+
+    @Test
+    public void detachingViewReleasesKeystrokesAudioPlayer()
+    {
+        int players = KeyStrokesAudio.sActivePlayers;
+        TypingCoordinator coordinator = new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .then( mTitle, TITLE )
+                .build();
+
+        coordinator.start();
+        idleFor( TYPING_SPEED );
+        assertEquals( players + 1, KeyStrokesAudio.sActivePlayers );
+
+        //no lifecycle observer and no explicit release.
+        mContainer.removeView( mTitle );
+        assertEquals( players, KeyStrokesAudio.sActivePlayers );
+
+        mContainer.addView( mTitle );
+        idleFor( TYPING_SPEED );
+        assertEquals( players + 1, KeyStrokesAudio.sActivePlayers );
+
+        coordinator.release();
+    }
+
+    @Test
+    public void keystrokesAudioIsSkippedWhenSavingPower()
+    {
+        setPowerSaveMode( true );
+        int players = KeyStrokesAudio.sActivePlayers;
+        TypingCoordinator coordinator = new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .then( mTitle, TITLE )
+                .build();
+
+        coordinator.start();
+        idleFor( coordinator.getDurationMillis() );
+
+        assertEquals( players, KeyStrokesAudio.sActivePlayers );
+    }
+
+    @Test
+    public void detachingViewPausesTypingUntilAttached()
+    {
+        TypingCoordinator coordinator = createSequence();
+        coordinator.start();
+        idleFor( 2 * TYPING_SPEED );
+
+        mContainer.removeView( mBody );
+        String title = displayedText( mTitle );
+        idleFor( coordinator.getDurationMillis() );
+
+        assertEquals( title, displayedText( mTitle ) );
+        assertFalse( coordinator.getProgress() >= 1f );
+
+        mContainer.addView( mBody );
+        idleFor( coordinator.getDurationMillis() );
+
+        assertEquals( BODY, displayedText( mBody ) );
+    }
+
+    @Test
+    public void startWaitsUntilEveryViewIsAttached()
+    {
+        mContainer.removeView( mBody );
+        TypingCoordinator coordinator = createSequence();
+
+        coordinator.start();
+        idleFor( coordinator.getDurationMillis() );
+        assertEquals( "", displayedText( mTitle ) );
+
+        mContainer.addView( mBody );
+        idleFor( coordinator.getDurationMillis() );
+
+        assertEquals( TITLE, displayedText( mTitle ) );
+        assertEquals( BODY, displayedText( mBody ) );
+    }
+
+    @Test
+    public void laterCoordinatorTakesViewOver()
+    {
+        TypingCoordinator previous = new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .playKeyStrokesAudio( false )
+                .then( mTitle, TITLE )
+                .build();
+        TypingCoordinator coordinator = new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .playKeyStrokesAudio( false )
+                .then( mTitle, TITLE, 100 )
+                .build();
+
+        //same text and configuration, hence the same cached prepared text for both.
+        previous.start();
+        coordinator.start();
+        idleFor( TITLE.length() * TYPING_SPEED );
+        assertEquals( "", displayedText( mTitle ) );
+
+        idleFor( coordinator.getDurationMillis() );
+        assertEquals( TITLE, displayedText( mTitle ) );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void releasedCoordinatorCanNotBeStarted()
+    {
+        TypingCoordinator coordinator = createSequence();
+        coordinator.release();
+
+        coordinator.start();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void sameViewCanNotBeTypedTwice()
+    {
+        new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .then( mTitle, TITLE )
+                .then( mTitle, SUBTITLE );
+    }
+
+    @Test
+    public void viewGivenAnotherTextIgnoresCoordinator()
+    {
+        TypingCoordinator coordinator = createSequence();
+        coordinator.start();
+        idleFor( 2 * TYPING_SPEED );
+
+        //shorter than the coordinated text, frames of which would not fit.
+        mBody.showCursor( false );
+        mBody.setTypedText( "Once" );
+        idleFor( coordinator.getDurationMillis() );
+
+        assertEquals( "Once", displayedText( mBody ) );
+        assertEquals( SUBTITLE, displayedText( mSubtitle ) );
+    }
+
+    private TypingCoordinator createSequence()
+    {
+        return new TypingCoordinator.Builder( RuntimeEnvironment.application )
+                .playKeyStrokesAudio( false )
+                .then( mTitle, TITLE )
+                .then( mSubtitle, SUBTITLE )
+                .then( mBody, BODY )
+                .build();
+    }
+
+    private static void setPowerSaveMode( boolean bPowerSaveMode )
+    {
+        PowerManager powerManager = ( PowerManager ) RuntimeEnvironment.application.getSystemService( Context.POWER_SERVICE );
+        shadowOf( powerManager ).setIsPowerSaveMode( bPowerSaveMode );
+    }
+
+    private static TypedTextView createTypedTextView( ViewGroup container )
+    {
+        TypedTextView typedTextView = new TypedTextView( container.getContext() );
+        typedTextView.randomizeTypingSpeed( false );
+        typedTextView.setTypingSpeed( TYPING_SPEED );
+        typedTextView.splitSentences( false );
+        typedTextView.playKeyStrokesAudio( false );
+
+        container.addView( typedTextView, new LinearLayout.LayoutParams( ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT ) );
+        return typedTextView;
+    }
+
+    private static String displayedText( TypedTextView typedTextView )
+    {
+        //getText() is overridden to return the text to be typed, check what is actually laid out.
+        typedTextView.measure( 0, 0 );
+        return typedTextView.getLayout().getText().toString();
+    }
+
+    private static void idleFor( long millis )
+    {
+        shadowOf( Looper.getMainLooper() ).idleFor( millis, TimeUnit.MILLISECONDS );
+    }
+}
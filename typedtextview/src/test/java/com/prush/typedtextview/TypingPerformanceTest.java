@@ -0,0 +1,302 @@
+package com.prush.typedtextview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Upper bounds on work done by the typing loop per revealed character and per cursor blink, so that
+ * regressions fail the build instead of showing up as jank.
+ */
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 28 )
+@LooperMode( LooperMode.Mode.PAUSED )
+public class TypingPerformanceTest
+{
+    private static final int[] TEXT_LENGTHS = { 1, 10, 100, 1000 };
+    private static final long TYPING_SPEED = 10;
+    private static final long CURSOR_BLINK_SPEED = 500;
+    private static final int CURSOR_BLINKS = 100;
+
+    //on top of text layout. generous enough for Robolectric's own bookkeeping, but far below
+    //copying the text on every frame.
+    private static final long MAX_ALLOCATED_BYTES_PER_FRAME = 1024;
+
+    private CountingHandler mHandler;
+    private FrameLayout mContainer;
+
+    @Before
+    public void setUp()
+    {
+        mHandler = new CountingHandler();
+        TypedTextView.sHandler = mHandler;
+
+        //typing is only scheduled for views attached to window.
+        Activity activity = Robolectric.buildActivity( Activity.class ).setup().get();
+        mContainer = new FrameLayout( activity );
+        activity.setContentView( mContainer );
+    }
+
+    @After
+    public void tearDown()
+    {
+        TypedTextView.sHandler = null;
+    }
+
+    @Test
+    public void typingDoesOneFrameAndOneMessagePerCharacter()
+    {
+        for( int length : TEXT_LENGTHS )
+        {
+            WorkCountingTypedTextView typedTextView = createLaidOutView();
+            String text = createText( length );
+
+            mHandler.mMessages = 0;
+            typedTextView.mFrames = 0;
+            typedTextView.setTypedText( text );
+            idleFor( ( length + 2 ) * TYPING_SPEED );
+
+            //clearing frame, one frame per character and the final frame.
+            assertTrue( "frames for " + length, typedTextView.mFrames <= length + 2 );
+            //first post, one post per character and the first cursor blink.
+            assertTrue( "messages for " + length, mHandler.mMessages <= length + 2 );
+            assertEquals( "layout requests for " + length, 0, typedTextView.mLayoutRequests );
+            assertEquals( text + "|", typedTextView.getLayout().getText().toString() );
+
+            //stop blinking so that it does not count towards the next text.
+            mContainer.removeView( typedTextView );
+        }
+    }
+
+    @Test
+    public void cursorBlinkDoesOneFrameAndOneMessagePerBlink()
+    {
+        WorkCountingTypedTextView typedTextView = createLaidOutView();
+        typedTextView.setTypedText( createText( 100 ) );
+        idleFor( 102 * TYPING_SPEED );
+
+        mHandler.mMessages = 0;
+        typedTextView.mFrames = 0;
+        idleFor( CURSOR_BLINKS * CURSOR_BLINK_SPEED );
+
+        assertEquals( CURSOR_BLINKS, typedTextView.mFrames );
+        assertEquals( CURSOR_BLINKS, mHandler.mMessages );
+        assertEquals( 0, typedTextView.mLayoutRequests );
+    }
+
+    @Test
+    public void wrappedHeightRequestsAtMostOneLayoutPerFrame()
+    {
+        WorkCountingTypedTextView typedTextView = createLaidOutView( 1080, ViewGroup.LayoutParams.WRAP_CONTENT );
+
+        typedTextView.setTypedText( createText( 1000 ) );
+        idleFor( 1002 * TYPING_SPEED + CURSOR_BLINKS * CURSOR_BLINK_SPEED );
+
+        assertTrue( typedTextView.mLayoutRequests <= typedTextView.mFrames );
+    }
+
+    @Test
+    public void typingAllocationPerCharacterIsBounded()
+    {
+        com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+        String text = createText( 1000 );
+
+        //warm up class loading, prepared text cache and text layout.
+        WorkCountingTypedTextView typedTextView = createAllocationCountingView();
+        typedTextView.setTypedText( text );
+        idleFor( 1002 * TYPING_SPEED );
+        long layoutBytesPerFrame = getLayoutBytesPerFrame( threadMXBean, typedTextView, text, 0, text.length() );
+        mContainer.removeView( typedTextView );
+
+        typedTextView = createAllocationCountingView();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes( threadId );
+        typedTextView.mFrames = 0;
+        typedTextView.setTypedText( text );
+        idleFor( 1002 * TYPING_SPEED );
+        allocatedBytes = threadMXBean.getThreadAllocatedBytes( threadId ) - allocatedBytes;
+
+        assertTrue( "allocated " + allocatedBytes + " bytes for " + typedTextView.mFrames + " frames, layout needs "
+                        + layoutBytesPerFrame + " bytes per frame",
+                allocatedBytes <= typedTextView.mFrames * ( layoutBytesPerFrame + MAX_ALLOCATED_BYTES_PER_FRAME ) );
+    }
+
+    @Test
+    public void cursorBlinkAllocationIsBounded()
+    {
+        com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+        String text = createText( 1000 );
+
+        WorkCountingTypedTextView typedTextView = createAllocationCountingView();
+        typedTextView.setTypedText( text );
+        idleFor( 1002 * TYPING_SPEED + CURSOR_BLINK_SPEED );
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes( threadId );
+        idleFor( CURSOR_BLINKS * CURSOR_BLINK_SPEED );
+        allocatedBytes = threadMXBean.getThreadAllocatedBytes( threadId ) - allocatedBytes;
+
+        //blinking frames are the text followed by cursor or placeholder.
+        typedTextView.release();
+        long layoutBytesPerFrame = getLayoutBytesPerFrame( threadMXBean, typedTextView, text + "|",
+                text.length() + 1, text.length() + 1 );
+
+        assertTrue( "allocated " + allocatedBytes + " bytes for " + CURSOR_BLINKS + " blinks, layout needs "
+                        + layoutBytesPerFrame + " bytes per frame",
+                allocatedBytes <= CURSOR_BLINKS * ( layoutBytesPerFrame + MAX_ALLOCATED_BYTES_PER_FRAME ) );
+    }
+
+    /*
+     * Rebuilding the text layout for every frame is TextView's own cost and grows with the text, so
+     * the budget is what setting the same frames directly allocates plus a constant per frame.
+     */
+    private static long getLayoutBytesPerFrame( com.sun.management.ThreadMXBean threadMXBean,
+                                                WorkCountingTypedTextView typedTextView, String text,
+                                                int fromLength, int toLength )
+    {
+        char[] chars = text.toCharArray();
+        int frames = Math.max( toLength - fromLength + 1, CURSOR_BLINKS );
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes( threadId );
+        for( int frame = 0; frame < frames; frame++ )
+        {
+            typedTextView.setText( chars, 0, fromLength + frame % ( toLength - fromLength + 1 ) );
+        }
+        allocatedBytes = threadMXBean.getThreadAllocatedBytes( threadId ) - allocatedBytes;
+        return allocatedBytes / frames;
+    }
+
+    private WorkCountingTypedTextView createAllocationCountingView()
+    {
+        //laid out so that every frame rebuilds the text layout, but not drawn, as Robolectric's
+        //recording canvas allocates for every draw call.
+        WorkCountingTypedTextView typedTextView = createLaidOutView();
+        typedTextView.setVisibility( View.INVISIBLE );
+        return typedTextView;
+    }
+
+    private WorkCountingTypedTextView createTypedTextView()
+    {
+        WorkCountingTypedTextView typedTextView = new WorkCountingTypedTextView( mContainer.getContext() );
+        typedTextView.randomizeTypingSpeed( false );
+        typedTextView.setTypingSpeed( TYPING_SPEED );
+        typedTextView.setCursorBlinkSpeed( CURSOR_BLINK_SPEED );
+        typedTextView.playKeyStrokesAudio( false );
+        typedTextView.setPowerSaving( TypedTextView.PowerSaving.OFF );
+        mContainer.addView( typedTextView, new FrameLayout.LayoutParams( 1080, 1920 ) );
+        return typedTextView;
+    }
+
+    private WorkCountingTypedTextView createLaidOutView()
+    {
+        return createLaidOutView( 1080, 1920 );
+    }
+
+    private WorkCountingTypedTextView createLaidOutView( int width, int height )
+    {
+        WorkCountingTypedTextView typedTextView = createTypedTextView();
+        typedTextView.setLayoutParams( new FrameLayout.LayoutParams( width, height ) );
+        layout( typedTextView );
+        typedTextView.mLayoutRequests = 0;
+        return typedTextView;
+    }
+
+    private static void layout( View view )
+    {
+        ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
+        view.measure( View.MeasureSpec.makeMeasureSpec( layoutParams.width, View.MeasureSpec.EXACTLY ),
+                layoutParams.height > 0
+                        ? View.MeasureSpec.makeMeasureSpec( layoutParams.height, View.MeasureSpec.EXACTLY )
+                        : View.MeasureSpec.makeMeasureSpec( 0, View.MeasureSpec.UNSPECIFIED ) );
+        view.layout( 0, 0, view.getMeasuredWidth(), view.getMeasuredHeight() );
+    }
+
+    private static String createText( int length )
+    {
+        //no full stops or commas, so that sentence pauses do not stretch typing time.
+        StringBuilder builder = new StringBuilder( length );
+        while( builder.length() < length )
+        {
+            builder.append( "typed text " );
+        }
+        return builder.substring( 0, length );
+    }
+
+    private static void idleFor( long millis )
+    {
+        shadowOf( Looper.getMainLooper() ).idleFor( millis, TimeUnit.MILLISECONDS );
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean()
+    {
+        Assume.assumeTrue( ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean );
+        com.sun.management.ThreadMXBean threadMXBean = ( com.sun.management.ThreadMXBean ) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue( threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled() );
+        return threadMXBean;
+    }
+
+    private static class CountingHandler extends Handler
+    {
+        private int mMessages;
+
+        private CountingHandler()
+        {
+            super( Looper.getMainLooper() );
+        }
+
+        @Override
+        public boolean sendMessageAtTime( Message msg, long uptimeMillis )
+        {
+            mMessages++;
+            return super.sendMessageAtTime( msg, uptimeMillis );
+        }
+    }
+
+    private static class WorkCountingTypedTextView extends TypedTextView
+    {
+        private int mFrames;
+        private int mLayoutRequests;
+
+        private WorkCountingTypedTextView( Context context )
+        {
+            super( context );
+        }
+
+        @Override
+        protected void onTextChanged( CharSequence text, int start, int lengthBefore, int lengthAfter )
+        {
+            super.onTextChanged( text, start, lengthBefore, lengthAfter );
+            mFrames++;
+        }
+
+        @Override
+        public void requestLayout()
+        {
+            super.requestLayout();
+            mLayoutRequests++;
+        }
+    }
+}